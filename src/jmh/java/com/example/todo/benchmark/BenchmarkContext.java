@@ -0,0 +1,113 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.TodoApplication;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared setup for benchmarks: starts the application without a web server and generates task data
+ */
+final class BenchmarkContext {
+    /**
+     * Generated tasks use ids far above the ones handed out by the id sequence, so both can be used together.
+     */
+    static final long FIRST_GENERATED_ID = 1_000_000_000L;
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(TodoApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(arguments(List.of("spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")));
+    }
+
+    /**
+     * Starts the application with its web server on a random port, see {@link #port}. The request limits are
+     * turned off, as in the tests, so that load from a single client is not answered 429 or 503.
+     */
+    static ConfigurableApplicationContext startServer(String databaseName, String... properties) {
+        List<String> settings = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1",
+                "logging.level.root=WARN",
+                "server.port=0",
+                "todo.limits.rate.enabled=false",
+                "todo.limits.concurrency.enabled=false"));
+        settings.addAll(List.of(properties));
+        return new SpringApplicationBuilder(TodoApplication.class)
+                .logStartupInfo(false)
+                .run(arguments(settings));
+    }
+
+    /**
+     * Passes the properties as command line arguments, which take precedence over application.properties unlike
+     * the default properties of {@link SpringApplicationBuilder#properties}.
+     */
+    private static String[] arguments(List<String> properties) {
+        return properties.stream().map(property -> "--" + property).toArray(String[]::new);
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    /**
+     * Generates tasks with due dates spread over two months around now, 5% without a due date and mostly not done.
+     * The same seed always produces the same tasks.
+     */
+    static List<Task> generateTasks(int count) {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        long range = TimeUnit.DAYS.toMillis(60);
+        TaskStatus[] statuses = TaskStatus.values();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setId(FIRST_GENERATED_ID + i);
+            task.setTitle("Generated task " + i);
+            if (random.nextInt(20) != 0) {
+                task.setDueDate(new Date(now - range / 2 + (long) (random.nextDouble() * range)));
+            }
+            task.setPriority(1 + random.nextInt(5));
+            task.setStatus(random.nextInt(4) == 0 ? statuses[1 + random.nextInt(2)] : TaskStatus.NOT_DONE);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Inserts generated tasks with plain JDBC batches, bypassing Hibernate to keep setup fast for large tables.
+     */
+    static void insertTasks(JdbcTemplate jdbcTemplate, int count) {
+        List<Task> tasks = generateTasks(count);
+        for (int start = 0; start < count; start += INSERT_BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (Task task : tasks.subList(start, Math.min(start + INSERT_BATCH_SIZE, count))) {
+                rows.add(new Object[]{
+                        task.getId(),
+                        task.getTitle(),
+                        task.getDueDate() == null ? null : new Timestamp(task.getDueDate().getTime()),
+                        task.getPriority(),
+                        task.getStatus().ordinal()
+                });
+            }
+            jdbcTemplate.batchUpdate("insert into task (id, title, due_date, priority, status) values (?, ?, ?, ?, ?)",
+                    rows);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.todo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from starting the application to the answer of its first task listing, in a fresh JVM every time so that
+ * class loading is included. Compares eager and lazy bean initialization, with and without the sample data.
+ * Class data sharing and AOT need a packaged jar and are measured outside JMH, see README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+    @Param({"false", "true"})
+    public boolean lazyInitialization;
+
+    @Param({"true", "false"})
+    public boolean seed;
+
+    private ConfigurableApplicationContext context;
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int startAndListTasks() throws IOException, InterruptedException {
+        context = BenchmarkContext.startServer("startup",
+                "spring.main.lazy-initialization=" + lazyInitialization,
+                "todo.seed.enabled=" + seed);
+        HttpRequest listRequest = HttpRequest.newBuilder(URI.create("http://localhost:"
+                + BenchmarkContext.port(context) + "/tasks")).build();
+        return HttpClient.newHttpClient().send(listRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
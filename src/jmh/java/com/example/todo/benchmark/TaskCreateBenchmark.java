@@ -0,0 +1,85 @@
+package com.example.todo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * HTTP throughput of task creation by concurrent clients, saved synchronously or written behind. Written behind,
+ * concurrent requests share the forces of the log; the queue is large enough for the inserts to keep up, so the
+ * benchmark measures the log rather than turned away requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(64)
+public class TaskCreateBenchmark {
+    @Param({"false", "true"})
+    public boolean writeBehind;
+
+    private Path logDirectory;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest createRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        logDirectory = Files.createTempDirectory("task-write-behind");
+        context = BenchmarkContext.startServer("create",
+                "todo.write-behind.enabled=" + writeBehind,
+                "todo.write-behind.queue-capacity=100000",
+                "todo.write-behind.offer-timeout=10s",
+                "todo.write-behind.log-path=" + logDirectory.resolve("task-write-behind.log"),
+                "todo.write-behind.dead-letter-path=" + logDirectory.resolve("task-write-behind-dead-letter.log"));
+        client = HttpClient.newHttpClient();
+        createRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + BenchmarkContext.port(context)
+                        + "/tasks"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"title\": \"Created task\", \"priority\": 3}"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.list(logDirectory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(logDirectory);
+    }
+
+    @Benchmark
+    public int create() throws IOException, InterruptedException {
+        int status = client.send(createRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 201 && status != 202) {
+            throw new IllegalStateException("Creation answered " + status);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.controller.TaskController;
+import com.example.todo.entity.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering and sorting cost of {@link TaskController#all} and {@link TaskController#allFields} by table size,
+ * without the web layer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskListBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TaskController controller;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.startServer("list-" + rows);
+        BenchmarkContext.insertTasks(context.getBean(JdbcTemplate.class), rows);
+        controller = context.getBean(TaskController.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private List<Task> list(String sortBy, String orderBy, boolean outdatedOnly, Integer priority, Integer size) {
+        ResponseEntity<List<Task>> response = controller.all(Optional.of(sortBy),
+                Optional.of(orderBy),
+                Optional.of(outdatedOnly),
+                Optional.ofNullable(priority),
+                Optional.empty(),
+                Optional.ofNullable(size),
+                Optional.empty());
+        return response.getBody();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> unfilteredIdTitleStatus() {
+        return controller.allFields(Optional.of("id"),
+                Optional.of("asc"),
+                Optional.of(false),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                List.of("id", "title", "status")).getBody();
+    }
+
+    @Benchmark
+    public List<Task> unfiltered() {
+        return list("id", "asc", false, null, null);
+    }
+
+    @Benchmark
+    public List<Task> sortedByDueDate() {
+        return list("dueDate", "asc", false, null, null);
+    }
+
+    @Benchmark
+    public List<Task> priorityFilter() {
+        return list("id", "asc", false, 3, null);
+    }
+
+    @Benchmark
+    public List<Task> outdatedWithPriorityByDueDateDesc() {
+        return list("dueDate", "desc", true, 3, null);
+    }
+
+    @Benchmark
+    public List<Task> firstPageByDueDate() {
+        return list("dueDate", "asc", false, null, 50);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips through {@link TaskRepository} against the in-memory H2 database
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRepositoryBenchmark {
+    private static final int ROWS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository repository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("repository");
+        BenchmarkContext.insertTasks(context.getBean(JdbcTemplate.class), ROWS);
+        repository = context.getBean(TaskRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Task save() {
+        Task task = new Task();
+        task.setTitle("Benchmark task");
+        task.setDueDate(new Date());
+        task.setPriority(3);
+        return repository.save(task);
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        long id = BenchmarkContext.FIRST_GENERATED_ID + ThreadLocalRandom.current().nextInt(ROWS);
+        return repository.findById(id);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.todo.benchmark;
+
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of merging a partial update into a task with {@link Task#updateTask}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskUpdateBenchmark {
+    private Task existingTask;
+    private Task fullUpdate;
+    private Task statusUpdate;
+
+    @Setup
+    public void setUp() {
+        existingTask = BenchmarkContext.generateTasks(1).get(0);
+
+        fullUpdate = new Task();
+        fullUpdate.setTitle("Updated task");
+        fullUpdate.setDueDate(new Date());
+        fullUpdate.setPriority(5);
+        fullUpdate.setStatus(TaskStatus.DONE);
+
+        statusUpdate = new Task();
+        statusUpdate.setStatus(TaskStatus.CANCELED);
+    }
+
+    @Benchmark
+    public Task fullUpdate() {
+        existingTask.updateTask(fullUpdate);
+        return existingTask;
+    }
+
+    @Benchmark
+    public Task statusUpdate() {
+        existingTask.updateTask(statusUpdate);
+        return existingTask;
+    }
+}
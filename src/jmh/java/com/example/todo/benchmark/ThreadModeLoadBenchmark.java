@@ -0,0 +1,81 @@
+package com.example.todo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP load test comparing request throughput on Tomcat's platform thread pool and on virtual threads.
+ * Many concurrent clients issue database bound list requests against a running server, with the response cache and
+ * Hibernate's query cache turned off so that every request reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(256)
+public class ThreadModeLoadBenchmark {
+    private static final int ROWS = 100_000;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    /**
+     * Size of Tomcat's platform thread pool, unused with virtual threads.
+     */
+    @Param({"200"})
+    public int platformThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest listRequest;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.startServer("load",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "server.tomcat.threads.max=" + platformThreads,
+                "todo.list-cache.enabled=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        BenchmarkContext.insertTasks(context.getBean(JdbcTemplate.class), ROWS);
+        client = HttpClient.newHttpClient();
+        listRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + BenchmarkContext.port(context)
+                        + "/tasks?priority=3&outdatedOnly=true&sortBy=dueDate&size=50"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listPage() throws IOException, InterruptedException {
+        int status = client.send(listRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Listing answered " + status);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.todo.config;
+
+import com.example.todo.repository.TaskRepository;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Restricts JPA repositories to the {@code repository} package, the reactive stack has its own R2DBC repositories
+ */
+@Configuration
+@ConditionalOnJpaStorage
+@EnableJpaRepositories(basePackageClasses = TaskRepository.class)
+public class JpaConfig {
+}
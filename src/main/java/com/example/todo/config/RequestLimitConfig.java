@@ -0,0 +1,24 @@
+package com.example.todo.config;
+
+import com.example.todo.controller.TaskRequestLimiter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(RequestLimitProperties.class)
+public class RequestLimitConfig implements WebMvcConfigurer {
+    private final TaskRequestLimiter limiter;
+
+    public RequestLimitConfig(TaskRequestLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(limiter).addPathPatterns("/tasks", "/tasks/**");
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.todo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Per-client rate limits and the adaptive concurrency limit of the task API, see {@code todo.limits.*} in
+ * application.properties.
+ */
+@ConfigurationProperties("todo.limits")
+public record RequestLimitProperties(Rate rate, Concurrency concurrency) {
+    /**
+     * Token bucket of every client: {@code capacity} tokens, refilled at {@code refillPerSecond}. Unfiltered
+     * listings and exports cost {@code scanCost}, filtered listings, searches, batches and transitions
+     * {@code queryCost}, other requests {@code defaultCost}. Clients are told apart by {@code clientHeader} when
+     * it is set and sent, by remote address otherwise.
+     */
+    public record Rate(boolean enabled,
+                       int capacity,
+                       int refillPerSecond,
+                       int scanCost,
+                       int queryCost,
+                       int defaultCost,
+                       String clientHeader,
+                       long maxClients) {
+    }
+
+    /**
+     * Limit on the requests handled at once, between {@code minLimit} and {@code maxLimit}. It grows while
+     * requests complete within {@code targetLatency} and shrinks when they take longer or fail.
+     */
+    public record Concurrency(boolean enabled,
+                              int initialLimit,
+                              int minLimit,
+                              int maxLimit,
+                              Duration targetLatency,
+                              Duration retryAfter) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.todo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Write-behind creation of tasks, see {@code todo.write-behind.*} in application.properties. At most
+ * {@code queueCapacity} accepted tasks wait to be inserted, {@code batchSize} at a time; a request that finds the
+ * queue full waits up to {@code offerTimeout} before it is turned away. Accepted tasks are appended to the file at
+ * {@code logPath} until they are inserted; those the database rejects are moved to the file at
+ * {@code deadLetterPath}.
+ */
+@ConfigurationProperties("todo.write-behind")
+public record WriteBehindProperties(boolean enabled,
+                                    int queueCapacity,
+                                    int batchSize,
+                                    Duration offerTimeout,
+                                    Path logPath,
+                                    Path deadLetterPath) {
+}
@@ -0,0 +1,53 @@
+package com.example.todo.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket per client. Each bucket is a single time, the moment at which it will be full again
+ * (the generic cell rate algorithm): taking tokens moves it forward by their refill time, and the bucket is empty
+ * when it would move further than its capacity ahead of now.
+ */
+final class ClientRateLimiter {
+    private final int capacity;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> fullAt;
+
+    ClientRateLimiter(int capacity, int refillPerSecond, long maxClients) {
+        this.capacity = capacity;
+        this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / refillPerSecond;
+        this.burstNanos = capacity * nanosPerToken;
+        // A bucket left alone that long is full, so forgetting it changes nothing
+        this.fullAt = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    /**
+     * Takes {@code cost} tokens from the bucket of {@code client}, or none when it does not hold enough.
+     *
+     * @return 0 when the tokens were taken, otherwise how long to wait for them in nanoseconds
+     */
+    long tryAcquire(String client, int cost) {
+        long now = System.nanoTime();
+        AtomicLong bucket = fullAt.get(client, key -> new AtomicLong(now));
+        long refill = Math.min(cost, capacity) * nanosPerToken;
+        while (true) {
+            long current = bucket.get();
+            long next = (current - now > 0 ? current : now) + refill;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
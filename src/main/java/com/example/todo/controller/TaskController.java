@@ -1,40 +1,124 @@
 package com.example.todo.controller;
 
+import com.example.todo.config.ConditionalOnJpaStorage;
+import com.example.todo.dto.TaskBatchResult;
+import com.example.todo.dto.TaskStats;
+import com.example.todo.dto.TaskTransition;
+import com.example.todo.dto.TaskTransitionResult;
 import com.example.todo.entity.Task;
-import com.example.todo.entity.TaskStatus;
 import com.example.todo.exceptions.IdNotAllowedException;
+import com.example.todo.exceptions.InvalidCursorException;
 import com.example.todo.exceptions.PriorityRequiredException;
+import com.example.todo.exceptions.TaskModifiedException;
 import com.example.todo.exceptions.TaskNotFoundException;
+import com.example.todo.exceptions.TransitionFilterRequiredException;
+import com.example.todo.metrics.TaskMetrics;
 import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TaskSort;
+import com.example.todo.repository.TaskSpecifications;
+import com.example.todo.service.TaskBatchService;
+import com.example.todo.service.TaskCache;
+import com.example.todo.service.TaskChangeFeed;
+import com.example.todo.service.TaskCounters;
+import com.example.todo.service.TaskDueDates;
+import com.example.todo.service.TaskSearchIndex;
+import com.example.todo.service.TaskWriteBehind;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Predicate;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Controller responsible for routing requests.
  */
 @RestController
+@ConditionalOnJpaStorage
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class TaskController {
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int SEARCH_CHUNK_SIZE = 500;
+
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     private final TaskRepository repository;
+    private final TaskCache taskCache;
+    private final TaskBatchService batchService;
+    private final TaskMetrics taskMetrics;
+    private final TaskCounters taskCounters;
+    private final TaskDueDates taskDueDates;
+    private final TaskChangeFeed changeFeed;
+    private final TaskSearchIndex searchIndex;
+    // Null when the listing response cache is disabled
+    private final TaskListCache listCache;
+    // Null unless write-behind task creation is enabled
+    private final TaskWriteBehind writeBehind;
+    private final ObjectMapper objectMapper;
 
-    public TaskController(TaskRepository repository) {
+    public TaskController(TaskRepository repository,
+                          TaskCache taskCache,
+                          TaskBatchService batchService,
+                          TaskMetrics taskMetrics,
+                          TaskCounters taskCounters,
+                          TaskDueDates taskDueDates,
+                          TaskChangeFeed changeFeed,
+                          TaskSearchIndex searchIndex,
+                          ObjectProvider<TaskListCache> listCache,
+                          ObjectProvider<TaskWriteBehind> writeBehind,
+                          ObjectMapper objectMapper) {
         this.repository = repository;
+        this.taskCache = taskCache;
+        this.batchService = batchService;
+        this.taskMetrics = taskMetrics;
+        this.taskCounters = taskCounters;
+        this.taskDueDates = taskDueDates;
+        this.changeFeed = changeFeed;
+        this.searchIndex = searchIndex;
+        this.listCache = listCache.getIfAvailable();
+        this.writeBehind = writeBehind.getIfAvailable();
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Creates a task. In write-behind mode the task is only queued, with its id, and the answer is 202 Accepted.
+     */
     @RequestMapping(value = "/tasks", method = RequestMethod.POST)
     public ResponseEntity<Task> addTask(@Valid @RequestBody Task newTask) {
         if (newTask.getId() != null) {
@@ -43,62 +127,299 @@ public class TaskController {
         if (newTask.getPriority() == null) {
             throw new PriorityRequiredException();
         }
-        return new ResponseEntity<>(repository.save(newTask), HttpStatus.CREATED);
+        if (writeBehind != null) {
+            return new ResponseEntity<>(writeBehind.submit(newTask), HttpStatus.ACCEPTED);
+        }
+        return new ResponseEntity<>(taskCache.put(repository.save(newTask)), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/tasks/batch")
+    public List<TaskBatchResult> addTasks(@RequestBody List<Task> newTasks) {
+        return cacheSuccessfulResults(batchService.createAll(newTasks));
     }
 
     @GetMapping("/tasks")
-    public List<Task> all(@RequestParam(defaultValue = "id") Optional<String> sortBy,
-                          @RequestParam(defaultValue = "asc") Optional<String> orderBy,
-                          @RequestParam(defaultValue = "false") Optional<Boolean> outdatedOnly,
-                          @RequestParam Optional<Integer> priority) {
-        Sort sortOptions = Sort.unsorted();
-        if (sortBy.isPresent()) {
-            sortOptions = Sort.by(sortBy.get());
+    public ResponseEntity<List<Task>> all(@RequestParam(defaultValue = "id") Optional<String> sortBy,
+                                          @RequestParam(defaultValue = "asc") Optional<String> orderBy,
+                                          @RequestParam(defaultValue = "false") Optional<Boolean> outdatedOnly,
+                                          @RequestParam Optional<Integer> priority,
+                                          @RequestParam Optional<Integer> page,
+                                          @RequestParam Optional<Integer> size,
+                                          @RequestParam Optional<String> after) {
+        return list(sortBy, orderBy, outdatedOnly, priority, page, size, after, null);
+    }
+
+    /**
+     * Lists only the requested fields, reading just their columns with a query that does not create managed
+     * entities. Filtering, sorting and paging work as in {@link #all}.
+     */
+    @GetMapping(value = "/tasks", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> allFields(
+            @RequestParam(defaultValue = "id") Optional<String> sortBy,
+            @RequestParam(defaultValue = "asc") Optional<String> orderBy,
+            @RequestParam(defaultValue = "false") Optional<Boolean> outdatedOnly,
+            @RequestParam Optional<Integer> priority,
+            @RequestParam Optional<Integer> page,
+            @RequestParam Optional<Integer> size,
+            @RequestParam Optional<String> after,
+            @RequestParam List<String> fields) {
+        TaskFields selection = TaskFields.of(fields);
+        ResponseEntity<List<Task>> response = list(sortBy, orderBy, outdatedOnly, priority, page, size, after,
+                selection);
+        List<Map<String, Object>> rows = response.getBody().stream()
+                .map(selection::toMap)
+                .toList();
+        return new ResponseEntity<>(rows, response.getHeaders(), response.getStatusCode());
+    }
+
+    /**
+     * Lists whole tasks, or only the columns of the selection when there is one.
+     */
+    private ResponseEntity<List<Task>> list(Optional<String> sortBy,
+                                            Optional<String> orderBy,
+                                            Optional<Boolean> outdatedOnly,
+                                            Optional<Integer> priority,
+                                            Optional<Integer> page,
+                                            Optional<Integer> size,
+                                            Optional<String> after,
+                                            TaskFields selection) {
+        Sort sortOptions = TaskSort.of(sortBy, orderBy);
+        Specification<Task> filter = TaskSpecifications.filter(outdatedOnly, priority);
+        String filterTag = TaskMetrics.filter(outdatedOnly.orElse(false), priority.isPresent());
+        String sortProperty = sortBy.orElse("id");
+        Set<String> columns = selection == null ? null : selection.columns(sortProperty);
+        List<String> fieldNames = selection == null ? null : selection.names();
+        if (page.isEmpty() && size.isEmpty() && after.isEmpty()) {
+            List<Task> tasks = selection == null
+                    ? repository.findAll(filter, sortOptions)
+                    : repository.findAllProjected(filter, sortOptions, columns, 0, -1);
+            taskMetrics.recordRows("list", filterTag, tasks.size());
+            HttpHeaders headers = new HttpHeaders();
+            return withValidators(tasks, headers, TaskETags.of(tasks, headers, fieldNames), -1);
+        }
+
+        // Paged listings are ordered by id after the sort column so that every row has a stable position
+        Sort.Direction direction = orderBy.isPresent() && orderBy.get().equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        Sort pageSort = Sort.by(direction, sortProperty);
+        if (!sortProperty.equals("id")) {
+            pageSort = pageSort.and(Sort.by(direction, "id"));
         }
-        if (orderBy.isPresent()) {
-            if (orderBy.get().equalsIgnoreCase("desc")) {
-                sortOptions = sortOptions.descending();
+        int pageSize = Math.min(Math.max(size.orElse(DEFAULT_PAGE_SIZE), 1), MAX_PAGE_SIZE);
+
+        HttpHeaders headers = new HttpHeaders();
+        List<Task> tasks;
+        if (after.isPresent()) {
+            TaskCursor cursor = TaskCursor.decode(after.get());
+            if (!cursor.matches(sortProperty, direction)) {
+                throw new InvalidCursorException();
+            }
+            Specification<Task> seek = filter.and(cursor.toSpecification());
+            Sort seekSort = pageSort;
+            tasks = selection == null
+                    ? repository.findBy(seek, query -> query.sortBy(seekSort).limit(pageSize).all())
+                    : repository.findAllProjected(seek, seekSort, columns, 0, pageSize);
+        } else {
+            PageRequest pageRequest = PageRequest.of(Math.max(page.orElse(0), 0), pageSize, pageSort);
+            if (selection == null) {
+                Page<Task> result = repository.findAll(filter, pageRequest);
+                headers.set(TOTAL_COUNT_HEADER, Long.toString(result.getTotalElements()));
+                tasks = result.getContent();
             } else {
-                sortOptions = sortOptions.ascending();
+                headers.set(TOTAL_COUNT_HEADER, Long.toString(repository.count(filter)));
+                tasks = repository.findAllProjected(filter, pageSort, columns, pageRequest.getOffset(), pageSize);
             }
         }
-        Predicate<Task> filter = getTaskPredicate(outdatedOnly, priority);
-        // TODO: Filtering happens in-memory. Need to filter at the database.
-        return repository.findAll(sortOptions).stream()
-                .filter(filter)
-                .toList();
+        if (tasks.size() == pageSize) {
+            Task last = tasks.get(tasks.size() - 1);
+            headers.set(NEXT_CURSOR_HEADER, TaskCursor.of(last, sortProperty, direction).encode());
+        }
+        taskMetrics.recordRows("list", filterTag, tasks.size());
+        return withValidators(tasks, headers, TaskETags.of(tasks, headers, fieldNames), -1);
     }
 
-    private static Predicate<Task> getTaskPredicate(Optional<Boolean> outdatedOnly,
-                                                    Optional<Integer> priorityFilter) {
-        Predicate<Task> filter = (task -> true);
-        if (outdatedOnly.isPresent() && outdatedOnly.get()) {
-            Date now = new Date();
-            filter = filter.and(task -> task.getDueDate() != null);
-            filter = filter.and(task -> task.getStatus() == TaskStatus.NOT_DONE);
-            filter = filter.and(task -> task.getDueDate().before(now));
-        }
-        if (priorityFilter.isPresent()) {
-            int priority = priorityFilter.get();
-            filter = filter.and(task -> task.getPriority() == priority);
+    /**
+     * Streams every matching task as newline-delimited JSON, reading rows one at a time instead of building a list.
+     */
+    @GetMapping(value = "/tasks/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "id") Optional<String> sortBy,
+                                                        @RequestParam(defaultValue = "asc") Optional<String> orderBy,
+                                                        @RequestParam(defaultValue = "false") Optional<Boolean> outdatedOnly,
+                                                        @RequestParam Optional<Integer> priority) {
+        Sort sortOptions = TaskSort.of(sortBy, orderBy);
+        Specification<Task> filter = TaskSpecifications.filter(outdatedOnly, priority);
+        String filterTag = TaskMetrics.filter(outdatedOnly.orElse(false), priority.isPresent());
+        StreamingResponseBody body = outputStream -> {
+            long[] rows = {0};
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                repository.streamAll(filter, sortOptions, task -> {
+                    try {
+                        generator.writeObject(task);
+                        generator.writeRaw('\n');
+                        rows[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } finally {
+                taskMetrics.recordRows("export", filterTag, rows[0]);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+
+    /**
+     * Tasks whose title matches every word of the query, as a word or a word prefix, best match first.
+     * The ranked ids come from the search index; the filters are applied by the database on chunks of them.
+     */
+    @GetMapping("/tasks/search")
+    public List<Task> search(@RequestParam String q,
+                             @RequestParam(defaultValue = "false") Optional<Boolean> outdatedOnly,
+                             @RequestParam Optional<Integer> priority,
+                             @RequestParam Optional<Integer> size) {
+        Specification<Task> filter = TaskSpecifications.filter(outdatedOnly, priority);
+        int limit = Math.min(Math.max(size.orElse(DEFAULT_PAGE_SIZE), 1), MAX_PAGE_SIZE);
+        List<Long> rankedIds = searchIndex.search(q);
+        List<Task> tasks = new ArrayList<>();
+        for (int from = 0; from < rankedIds.size() && tasks.size() < limit; from += SEARCH_CHUNK_SIZE) {
+            List<Long> chunk = rankedIds.subList(from, Math.min(from + SEARCH_CHUNK_SIZE, rankedIds.size()));
+            Map<Long, Task> matching = repository.findAll(filter.and(TaskSpecifications.idIn(chunk))).stream()
+                    .collect(Collectors.toMap(Task::getId, Function.identity()));
+            for (Long id : chunk) {
+                Task task = matching.get(id);
+                if (task != null && tasks.size() < limit) {
+                    tasks.add(task);
+                }
+            }
         }
-        return filter;
+        taskMetrics.recordRows("search", TaskMetrics.filter(outdatedOnly.orElse(false), priority.isPresent()),
+                tasks.size());
+        return tasks;
+    }
+
+    /**
+     * Task counts by status and priority, without reading the tasks.
+     */
+    @GetMapping("/tasks/stats")
+    public TaskStats stats() {
+        return taskCounters.stats();
+    }
+
+    /**
+     * Server-Sent Events stream of task changes. A reconnecting client resumes after its {@code Last-Event-ID}.
+     */
+    @GetMapping(value = "/tasks/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventId);
     }
 
     @GetMapping("/tasks/{id}")
-    public Task findById(@PathVariable Long id) {
-        return repository.findById(id)
+    public ResponseEntity<Task> findById(@PathVariable Long id) {
+        Task task = taskCache.findById(id)
                 .orElseThrow(() -> new TaskNotFoundException(id));
+        return withValidators(task);
     }
 
+    /**
+     * Updates a task. With an {@code If-Match} header the update only applies to the version of the task it names,
+     * without one concurrent updates are still detected through the version column.
+     */
     @PatchMapping("/tasks/{id}")
-    public Task updateTask(@Valid @RequestBody Task updatedTask, @PathVariable Long id) {
+    public ResponseEntity<Task> updateTask(@Valid @RequestBody Task updatedTask,
+                                           @PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (updatedTask.getId() != null) {
             throw new IdNotAllowedException();
         }
+        // Read-modify-write works on a fresh copy, cached tasks are never modified in place
         Task existingTask = repository.findById(id)
                 .orElseThrow(() -> new TaskNotFoundException(id));
+        if (ifMatch != null && !TaskETags.matches(ifMatch, existingTask)) {
+            throw new TaskModifiedException(id);
+        }
         existingTask.updateTask(updatedTask);
-        return repository.save(existingTask);
+        Task savedTask;
+        try {
+            savedTask = repository.save(existingTask);
+        } catch (OptimisticLockingFailureException e) {
+            throw new TaskModifiedException(id);
+        }
+        return withValidators(taskCache.put(savedTask));
+    }
+
+    /**
+     * Moves the tasks selected by ids and the listing filters to another status with a single UPDATE statement,
+     * without loading them. A body selecting no tasks at all is rejected rather than moving the whole table. The
+     * caches are dropped afterwards, and the in-memory indexes that follow Hibernate events are moved along from the
+     * state of the selected tasks, read before the statement; only when tasks inserted meanwhile were moved too are
+     * they reloaded from the whole table.
+     */
+    @PostMapping("/tasks/transition")
+    public TaskTransitionResult transition(@Valid @RequestBody TaskTransition transition) {
+        if (transition.ids() != null && transition.ids().isEmpty()) {
+            return new TaskTransitionResult(0);
+        }
+        if (transition.ids() == null && transition.priority() == null
+                && !Boolean.TRUE.equals(transition.outdatedOnly())) {
+            throw new TransitionFilterRequiredException();
+        }
+        Date now = new Date();
+        Date dueBefore = Boolean.TRUE.equals(transition.outdatedOnly()) ? now : null;
+        TaskBatchService.Transition result = batchService.transition(transition.ids(), transition.status(),
+                transition.priority(), dueBefore, now);
+        if (result.updated() > 0) {
+            taskCache.evictAll();
+            if (listCache != null) {
+                listCache.invalidateAll();
+            }
+            if (result.moved() != null) {
+                taskDueDates.onTransition(result.moved(), transition.status());
+                taskCounters.onTransition(result.moved(), transition.status());
+            } else {
+                taskDueDates.refresh();
+                taskCounters.refresh();
+            }
+            changeFeed.reset();
+        }
+        return new TaskTransitionResult(result.updated());
+    }
+
+    @PatchMapping("/tasks/batch")
+    public List<TaskBatchResult> updateTasks(@RequestBody List<Task> updatedTasks) {
+        return cacheSuccessfulResults(batchService.updateAll(updatedTasks));
+    }
+
+    private static ResponseEntity<Task> withValidators(Task task) {
+        return withValidators(task, new HttpHeaders(), TaskETags.of(task), TaskETags.lastModified(task));
+    }
+
+    /**
+     * Adds the {@code ETag} and {@code Last-Modified} headers. For GET requests Spring compares them with
+     * {@code If-None-Match} and {@code If-Modified-Since} and answers 304 without serializing the body.
+     * Listings get no {@code Last-Modified}: the newest modification time of the rows they return does not
+     * change when a task leaves the filtered set or becomes overdue, so only their {@code ETag} is reliable.
+     */
+    private static <T> ResponseEntity<T> withValidators(T body, HttpHeaders headers, String eTag, long lastModified) {
+        headers.setETag(eTag);
+        headers.setVary(List.of(HttpHeaders.ACCEPT));
+        if (lastModified >= 0) {
+            headers.setLastModified(lastModified);
+        }
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Refreshes the cache once the batch transaction has committed.
+     */
+    private List<TaskBatchResult> cacheSuccessfulResults(List<TaskBatchResult> results) {
+        results.stream()
+                .map(TaskBatchResult::task)
+                .filter(Objects::nonNull)
+                .forEach(taskCache::put);
+        return results;
     }
 }
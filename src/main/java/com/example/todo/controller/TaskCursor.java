@@ -0,0 +1,92 @@
+package com.example.todo.controller;
+
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import com.example.todo.exceptions.InvalidCursorException;
+import com.example.todo.repository.TaskSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset cursor identifying the last {@link Task} of a page by its sort column value and id
+ */
+record TaskCursor(String sortBy, Sort.Direction direction, Object value, long id) {
+    private static final String SEPARATOR = "|";
+    private static final String NULL_VALUE = "n";
+    private static final String PRESENT_VALUE = "v";
+
+    static TaskCursor of(Task task, String sortBy, Sort.Direction direction) {
+        Object value = switch (sortBy) {
+            case "id" -> task.getId();
+            case "title" -> task.getTitle();
+            case "dueDate" -> task.getDueDate();
+            case "priority" -> task.getPriority();
+            case "status" -> task.getStatus();
+            default -> throw new InvalidCursorException();
+        };
+        return new TaskCursor(sortBy, direction, value, task.getId());
+    }
+
+    static TaskCursor decode(String token) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+        String[] parts = decoded.split("\\|", 4);
+        if (parts.length != 4 || parts[3].isEmpty()) {
+            throw new InvalidCursorException();
+        }
+        try {
+            String sortBy = parts[0];
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            long id = Long.parseLong(parts[2]);
+            Object value = parts[3].startsWith(NULL_VALUE) ? null : parseValue(sortBy, parts[3].substring(1));
+            return new TaskCursor(sortBy, direction, value, id);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    private static Object parseValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "id" -> Long.parseLong(value);
+            case "title" -> value;
+            case "dueDate" -> new Date(Long.parseLong(value));
+            case "priority" -> Integer.parseInt(value);
+            case "status" -> TaskStatus.valueOf(value);
+            default -> throw new InvalidCursorException();
+        };
+    }
+
+    String encode() {
+        String encodedValue;
+        if (value == null) {
+            encodedValue = NULL_VALUE;
+        } else if (value instanceof Date date) {
+            encodedValue = PRESENT_VALUE + date.getTime();
+        } else if (value instanceof TaskStatus status) {
+            encodedValue = PRESENT_VALUE + status.name();
+        } else {
+            encodedValue = PRESENT_VALUE + value;
+        }
+        String raw = String.join(SEPARATOR, sortBy, direction.name(), Long.toString(id), encodedValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether this cursor was issued for a listing with the same ordering.
+     */
+    boolean matches(String sortBy, Sort.Direction direction) {
+        return this.sortBy.equals(sortBy) && this.direction == direction;
+    }
+
+    Specification<Task> toSpecification() {
+        return TaskSpecifications.after(sortBy, value, id, direction);
+    }
+}
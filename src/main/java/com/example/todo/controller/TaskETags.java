@@ -0,0 +1,109 @@
+package com.example.todo.controller;
+
+import com.example.todo.entity.Task;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Strong entity tags and modification times of {@link Task} representations
+ */
+final class TaskETags {
+    private static final String ANY = "*";
+    private static final String CBOR_SUFFIX = "-cbor";
+
+    private TaskETags() {
+    }
+
+    /**
+     * The tag of a single task is its version, which changes with every update.
+     */
+    static String of(Task task) {
+        return "\"" + task.getVersion() + representationSuffix() + "\"";
+    }
+
+    /**
+     * The tag of a listing is a digest of the id and version of every task in order, of the total count
+     * when there is one and of the selected fields, so that it changes whenever any part of the response does.
+     */
+    static String of(List<Task> tasks, HttpHeaders headers, List<String> fields) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+        for (Task task : tasks) {
+            buffer.clear();
+            buffer.putLong(task.getId()).putLong(task.getVersion());
+            digest.update(buffer.array());
+        }
+        String totalCount = headers.getFirst(TaskController.TOTAL_COUNT_HEADER);
+        if (totalCount != null) {
+            digest.update(totalCount.getBytes(StandardCharsets.US_ASCII));
+        }
+        if (fields != null) {
+            digest.update(String.join(",", fields).getBytes(StandardCharsets.US_ASCII));
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest()) + representationSuffix() + "\"";
+    }
+
+    /**
+     * Whether an {@code If-Match} header value matches the current version of the task, in any representation.
+     * Weak tags never match.
+     */
+    static boolean matches(String ifMatch, Task task) {
+        String version = "\"" + task.getVersion();
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals(ANY) || trimmed.equals(version + "\"") || trimmed.equals(version + CBOR_SUFFIX + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Modification time of the task in milliseconds, or -1 when it is not known.
+     */
+    static long lastModified(Task task) {
+        return task.getLastModified() == null ? -1 : task.getLastModified().getTime();
+    }
+
+    /**
+     * Strong tags have to differ between representations, so the tags of CBOR responses get a suffix. The tag is
+     * needed before content negotiation, a request is taken to get CBOR when it accepts {@code application/cbor}
+     * without naming JSON.
+     */
+    private static String representationSuffix() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return "";
+        }
+        String accept = attributes.getRequest().getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        boolean cbor = false;
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)) {
+                    return "";
+                }
+                cbor |= mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR) && mediaType.getQualityValue() > 0;
+            }
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        return cbor ? CBOR_SUFFIX : "";
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.todo.controller;
+
+import com.example.todo.entity.Task;
+import com.example.todo.exceptions.InvalidFieldException;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fields of a {@link Task} selected with the {@code fields} parameter of the task listing
+ */
+record TaskFields(List<String> names) {
+    private static final List<String> ALL = List.of("id", "title", "dueDate", "priority", "status", "version",
+            "lastModified");
+    // Read for every listing: the ETag is computed from the id and version
+    private static final List<String> VALIDATORS = List.of("id", "version");
+
+    /**
+     * Parses the requested field names. An empty selection stands for all fields.
+     */
+    static TaskFields of(List<String> fields) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ALL.contains(name)) {
+                throw new InvalidFieldException(name);
+            }
+            names.add(name);
+        }
+        return new TaskFields(names.isEmpty() ? ALL : List.copyOf(names));
+    }
+
+    /**
+     * Properties to read from the database: the selected fields, the validators and the property a page
+     * cursor is built from.
+     */
+    Set<String> columns(String sortProperty) {
+        Set<String> columns = new LinkedHashSet<>(names);
+        columns.addAll(VALIDATORS);
+        if (ALL.contains(sortProperty)) {
+            columns.add(sortProperty);
+        }
+        return columns;
+    }
+
+    Map<String, Object> toMap(Task task) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String name : names) {
+            row.put(name, switch (name) {
+                case "id" -> task.getId();
+                case "title" -> task.getTitle();
+                case "dueDate" -> task.getDueDate();
+                case "priority" -> task.getPriority();
+                case "status" -> task.getStatus();
+                case "version" -> task.getVersion();
+                case "lastModified" -> task.getLastModified();
+                default -> throw new InvalidFieldException(name);
+            });
+        }
+        return row;
+    }
+}
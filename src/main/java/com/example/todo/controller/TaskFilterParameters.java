@@ -0,0 +1,37 @@
+package com.example.todo.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+/**
+ * Filter parameters of the task listing read from the raw request, for filters that run before the controller.
+ * Values are converted the way the controller binds them, so that {@code outdatedOnly=1}, {@code yes} or {@code on}
+ * mean the same as {@code true}.
+ */
+final class TaskFilterParameters {
+    private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+    private TaskFilterParameters() {
+    }
+
+    /**
+     * The {@code outdatedOnly} parameter, {@code false} when it is missing or empty.
+     *
+     * @throws ConversionException when the value is not a boolean
+     */
+    static boolean outdatedOnly(HttpServletRequest request) {
+        Boolean outdatedOnly = CONVERSION_SERVICE.convert(request.getParameter("outdatedOnly"), Boolean.class);
+        return Boolean.TRUE.equals(outdatedOnly);
+    }
+
+    /**
+     * The {@code priority} parameter, {@code null} when it is missing or empty.
+     *
+     * @throws ConversionException when the value is not an integer
+     */
+    static Integer priority(HttpServletRequest request) {
+        return CONVERSION_SERVICE.convert(request.getParameter("priority"), Integer.class);
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.todo.controller;
+
+import com.example.todo.config.ConditionalOnJpaStorage;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import com.example.todo.repository.TaskCommitListener;
+import com.example.todo.service.TaskOverdueEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the serialized JSON responses of the task listing, keyed on their normalized query parameters, together
+ * with a gzip compressed copy. Entries are grouped by their filter; a group is dropped when a committed write
+ * changes a task that matches the filter before or after the write, and outdated-only groups also when a task
+ * becomes overdue.
+ */
+@Component
+@ConditionalOnJpaStorage
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "todo.list-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskListCache extends OncePerRequestFilter implements TaskCommitListener {
+    private static final String PATH = "/tasks";
+    private static final long MAX_WEIGHT_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_ENTRY_BYTES = 8 * 1024 * 1024;
+    private static final int MIN_COMPRESSED_BYTES = 1024;
+    private static final String GZIP = "gzip";
+    private static final List<String> CACHED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ETAG,
+            TaskController.TOTAL_COUNT_HEADER,
+            TaskController.NEXT_CURSOR_HEADER);
+    private static final List<String> KEY_PARAMETERS = List.of("sortBy", "orderBy", "page", "size", "after", "fields");
+    // The priorities a task can have; other priority filters would each add a group that no write ever matches
+    private static final int MIN_PRIORITY = 1;
+    private static final int MAX_PRIORITY = 5;
+
+    private record Group(boolean outdatedOnly, Integer priority) {
+        boolean matches(TaskStatus status, Integer taskPriority, Date dueDate, long now) {
+            if (priority != null && !priority.equals(taskPriority)) {
+                return false;
+            }
+            return !outdatedOnly || status == TaskStatus.NOT_DONE && dueDate != null && dueDate.getTime() < now;
+        }
+    }
+
+    private record Key(Group group, String parameters) {
+    }
+
+    private record Entry(byte[] body, byte[] gzipBody, Map<String, String> headers) {
+        int weight() {
+            return body.length + (gzipBody == null ? 0 : gzipBody.length);
+        }
+    }
+
+    private final Cache<Key, Entry> cache = Caffeine.newBuilder()
+            .maximumWeight(MAX_WEIGHT_BYTES)
+            .<Key, Entry>weigher((key, entry) -> entry.weight())
+            .recordStats()
+            .build();
+    // Bumped on every invalidation of a group, so that responses computed before it are not stored
+    private final Map<Group, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public TaskListCache(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        TaskCommitListener.register(entityManagerFactory, this);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "taskLists");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+                || !request.getRequestURI().substring(request.getContextPath().length()).equals(PATH)
+                || !acceptsJson(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Key key = key(request);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            write(entry, request, response);
+            return;
+        }
+
+        long generation = generation(key.group()).get();
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            if (responseWrapper.getStatus() == HttpServletResponse.SC_OK
+                    && responseWrapper.getContentSize() <= MAX_ENTRY_BYTES) {
+                store(key, generation, responseWrapper);
+            }
+        } finally {
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    @Override
+    public void onInsert(Task task) {
+        long now = System.currentTimeMillis();
+        invalidateMatching(group -> group.matches(task.getStatus(), task.getPriority(), task.getDueDate(), now));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getOldState() == null) {
+            invalidateAll();
+            return;
+        }
+        Task task = (Task) event.getEntity();
+        TaskStatus previousStatus = (TaskStatus) TaskCommitListener.previousValue(event, "status");
+        Integer previousPriority = (Integer) TaskCommitListener.previousValue(event, "priority");
+        Date previousDueDate = (Date) TaskCommitListener.previousValue(event, "dueDate");
+        long now = System.currentTimeMillis();
+        invalidateMatching(group -> group.matches(previousStatus, previousPriority, previousDueDate, now)
+                || group.matches(task.getStatus(), task.getPriority(), task.getDueDate(), now));
+    }
+
+    @EventListener
+    public void onOverdue(TaskOverdueEvent event) {
+        invalidateMatching(Group::outdatedOnly);
+    }
+
+    /**
+     * Drops every cached listing, for writes that bypass the Hibernate events.
+     */
+    public void invalidateAll() {
+        invalidateMatching(group -> true);
+    }
+
+    private void invalidateMatching(Predicate<Group> affected) {
+        for (Map.Entry<Group, AtomicLong> generation : generations.entrySet()) {
+            Group group = generation.getKey();
+            if (affected.test(group)) {
+                generation.getValue().incrementAndGet();
+                cache.asMap().keySet().removeIf(key -> key.group().equals(group));
+            }
+        }
+    }
+
+    private AtomicLong generation(Group group) {
+        return generations.computeIfAbsent(group, key -> new AtomicLong());
+    }
+
+    private void store(Key key, long generation, ContentCachingResponseWrapper response) throws IOException {
+        byte[] body = response.getContentAsByteArray();
+        byte[] gzipBody = null;
+        if (body.length >= MIN_COMPRESSED_BYTES) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            gzipBody = compressed.toByteArray();
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : CACHED_HEADERS) {
+            String value = response.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        AtomicLong groupGeneration = generation(key.group());
+        if (groupGeneration.get() != generation) {
+            return;
+        }
+        cache.put(key, new Entry(body, gzipBody, headers));
+        // An invalidation may have run between the check and the put
+        if (groupGeneration.get() != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    private static void write(Entry entry, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        entry.headers().forEach(response::setHeader);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        String eTag = entry.headers().get(HttpHeaders.ETAG);
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return;
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = entry.body();
+        if (entry.gzipBody() != null && acceptEncoding != null && acceptEncoding.contains(GZIP)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            body = entry.gzipBody();
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Cache key of a listing request, or {@code null} when its filter parameters are not valid or filter on a
+     * priority no task can have. The filter is converted as the controller binds it; every value of the other
+     * parameters is part of the key, in order, since the controller binds repeated {@code fields} and
+     * {@code sortBy} values as a list.
+     */
+    private static Key key(HttpServletRequest request) {
+        Group group;
+        try {
+            group = new Group(TaskFilterParameters.outdatedOnly(request), TaskFilterParameters.priority(request));
+        } catch (ConversionException e) {
+            return null;
+        }
+        if (group.priority() != null && (group.priority() < MIN_PRIORITY || group.priority() > MAX_PRIORITY)) {
+            return null;
+        }
+        StringBuilder parameters = new StringBuilder();
+        for (String name : KEY_PARAMETERS) {
+            String[] values = request.getParameterValues(name);
+            if (values == null) {
+                continue;
+            }
+            for (String value : values) {
+                parameters.append(name).append('=').append(name.equals("orderBy") ? value.toLowerCase() : value)
+                        .append('&');
+            }
+        }
+        return new Key(group, parameters.toString());
+    }
+
+    /**
+     * Only JSON responses are cached; requests that mention CBOR go to the controller.
+     */
+    private static boolean acceptsJson(String accept) {
+        if (accept == null) {
+            return true;
+        }
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            return mediaTypes.stream().noneMatch(mediaType -> mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)
+                    && !mediaType.isWildcardType() && !mediaType.isWildcardSubtype())
+                    && mediaTypes.stream().anyMatch(mediaType -> mediaType.includes(MediaType.APPLICATION_JSON));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.todo.controller;
+
+import com.example.todo.config.RequestLimitProperties;
+import com.example.todo.exceptions.OverloadedException;
+import com.example.todo.exceptions.RateLimitedException;
+import com.example.todo.metrics.TaskMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects task API requests of clients that exceed their rate with 429, and any request beyond the adaptive
+ * concurrency limit with 503, both with a {@code Retry-After} header. Requests are weighted by how much of the
+ * table they may read. Streamed responses give their concurrency slot back once the streaming starts.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TaskRequestLimiter implements AsyncHandlerInterceptor {
+    private static final String STARTED_ATTRIBUTE = TaskRequestLimiter.class.getName() + ".started";
+
+    private final RequestLimitProperties.Rate rate;
+    private final RequestLimitProperties.Concurrency concurrency;
+    private final TaskMetrics metrics;
+    private final ClientRateLimiter rateLimiter;
+    private final ConcurrencyLimit concurrencyLimit;
+
+    public TaskRequestLimiter(RequestLimitProperties properties, TaskMetrics metrics, MeterRegistry registry) {
+        this.rate = properties.rate();
+        this.concurrency = properties.concurrency();
+        this.metrics = metrics;
+        this.rateLimiter = new ClientRateLimiter(rate.capacity(), rate.refillPerSecond(), rate.maxClients());
+        this.concurrencyLimit = new ConcurrencyLimit(concurrency.initialLimit(),
+                concurrency.minLimit(),
+                concurrency.maxLimit(),
+                concurrency.targetLatency().toNanos());
+        Gauge.builder("tasks.requests.concurrency.limit", concurrencyLimit, ConcurrencyLimit::limit)
+                .description("Current adaptive limit on task requests in flight")
+                .register(registry);
+        Gauge.builder("tasks.requests.in.flight", concurrencyLimit, ConcurrencyLimit::inFlight)
+                .description("Task requests holding a concurrency slot")
+                .register(registry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async dispatches continue a request that was already admitted
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        if (rate.enabled()) {
+            long waitNanos = rateLimiter.tryAcquire(client(request), cost(request));
+            if (waitNanos > 0) {
+                metrics.recordRejected("rate");
+                throw new RateLimitedException(toRetryAfterSeconds(waitNanos));
+            }
+        }
+        if (concurrency.enabled()) {
+            if (!concurrencyLimit.tryAcquire()) {
+                metrics.recordRejected("concurrency");
+                throw new OverloadedException(toRetryAfterSeconds(concurrency.retryAfter().toNanos()));
+            }
+            request.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        release(request, false);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        release(request, ex != null || response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    }
+
+    private void release(HttpServletRequest request, boolean failed) {
+        Object started = request.getAttribute(STARTED_ATTRIBUTE);
+        if (started == null) {
+            return;
+        }
+        request.removeAttribute(STARTED_ATTRIBUTE);
+        concurrencyLimit.release(System.nanoTime() - (Long) started, failed);
+    }
+
+    private String client(HttpServletRequest request) {
+        if (rate.clientHeader() != null && !rate.clientHeader().isBlank()) {
+            String client = request.getHeader(rate.clientHeader());
+            if (client != null) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Unfiltered listings and exports read the whole table, filtered ones, searches, batches and transitions part
+     * of it. The filter is read as the controller binds it, so {@code outdatedOnly=1} counts as filtered.
+     */
+    private int cost(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (HttpMethod.GET.matches(request.getMethod()) && (path.equals("/tasks") || path.equals("/tasks/export"))) {
+            boolean filtered;
+            try {
+                filtered = TaskFilterParameters.priority(request) != null || TaskFilterParameters.outdatedOnly(request);
+            } catch (ConversionException e) {
+                // Rejected by the controller, but charged like an unfiltered listing
+                filtered = false;
+            }
+            return filtered ? rate.queryCost() : rate.scanCost();
+        }
+        if (path.equals("/tasks/search") || path.equals("/tasks/batch") || path.equals("/tasks/transition")) {
+            return rate.queryCost();
+        }
+        return rate.defaultCost();
+    }
+
+    private static long toRetryAfterSeconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.Task;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Outcome of a single item of a batch request, identified by its position in the request
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskBatchResult(int index, int status, Task task, List<String> errors) {
+    public static TaskBatchResult success(int index, int status, Task task) {
+        return new TaskBatchResult(index, status, task, null);
+    }
+
+    public static TaskBatchResult failure(int index, int status, List<String> errors) {
+        return new TaskBatchResult(index, status, null, errors);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.Task;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Event of the task change feed. Overdue events carry only the id of the task.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskChange(long sequence, Type type, Long id, Task task) {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        OVERDUE
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.TaskStatus;
+
+import java.util.Map;
+
+/**
+ * Task counts for dashboards. Tasks without a status or a priority are only part of the total and the other breakdown.
+ */
+public record TaskStats(long total, long overdue, Map<TaskStatus, Long> byStatus, Map<Integer, Long> byPriority) {
+}
@@ -0,0 +1,18 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.TaskStatus;
+import com.example.todo.exceptions.MessageConstants;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Moves the tasks matching all the given criteria to {@code status}. Without {@code ids} the filters alone select
+ * the tasks, as in the task listing; at least one of {@code ids}, {@code outdatedOnly} or {@code priority} is
+ * required.
+ */
+public record TaskTransition(List<Long> ids,
+                             Boolean outdatedOnly,
+                             Integer priority,
+                             @NotNull(message = MessageConstants.STATUS_REQUIRED_MESSAGE) TaskStatus status) {
+}
@@ -0,0 +1,7 @@
+package com.example.todo.dto;
+
+/**
+ * Number of tasks whose status a transition changed.
+ */
+public record TaskTransitionResult(int updated) {
+}
@@ -1,24 +1,55 @@
 package com.example.todo.entity;
 
 import com.example.todo.exceptions.MessageConstants;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.util.Date;
 import java.util.Objects;
 
 /**
- * Class defining the {@link Task} entity
+ * Class defining the {@link Task} entity. The schema is managed by the migrations in {@code db/migration},
+ * the indexes are listed here for reference. Loaded tasks are kept in the {@code task} region of the second-level
+ * cache.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Task.CACHE_REGION)
+@Table(indexes = {
+        @Index(name = "idx_task_status_due_date", columnList = "status, due_date"),
+        @Index(name = "idx_task_priority_id", columnList = "priority, id"),
+        @Index(name = "idx_task_due_date_id", columnList = "due_date, id")
+})
 public class Task {
+    public static final String CACHE_REGION = "task";
+
     @Id
-    @GeneratedValue
+    // Spring Data R2DBC, used by the reactive profile, does not read the JPA annotation
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
+    // The length of the title column
+    @Size(max = 255, message = MessageConstants.TITLE_LENGTH_MESSAGE)
     private String title;
 
     private Date dueDate;
@@ -27,8 +58,21 @@ public class Task {
     @Max(value = 5, message = MessageConstants.PRIORITY_RANGE_MESSAGE)
     private Integer priority;
 
+    @Enumerated(EnumType.ORDINAL)
+    @JdbcTypeCode(SqlTypes.TINYINT)
     private TaskStatus status = TaskStatus.NOT_DONE;
 
+    /**
+     * Incremented on every update, used for optimistic locking and as the entity tag of the task.
+     */
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @UpdateTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Date lastModified;
+
     public Task() {
     }
 
@@ -72,6 +116,22 @@ public class Task {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+
     public void updateTask(Task otherTask) {
         if (otherTask.title != null) {
             this.title = otherTask.title;
@@ -1,7 +1,7 @@
 package com.example.todo.entity;
 
 /**
- * Enum representing the status of a {@link Task}
+ * Enum representing the status of a {@link Task}. Statuses are stored by ordinal, so new values must be appended.
  */
 public enum TaskStatus {
     NOT_DONE,
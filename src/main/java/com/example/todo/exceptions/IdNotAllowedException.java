@@ -2,6 +2,6 @@ package com.example.todo.exceptions;
 
 public class IdNotAllowedException extends RuntimeException {
     public IdNotAllowedException() {
-        super("id is not allowed in this request");
+        super(MessageConstants.ID_NOT_ALLOWED_MESSAGE);
     }
 }
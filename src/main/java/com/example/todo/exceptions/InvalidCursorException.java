@@ -0,0 +1,7 @@
+package com.example.todo.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super("cursor is not valid for this request");
+    }
+}
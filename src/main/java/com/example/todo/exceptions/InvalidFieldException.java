@@ -0,0 +1,7 @@
+package com.example.todo.exceptions;
+
+public class InvalidFieldException extends RuntimeException {
+    public InvalidFieldException(String field) {
+        super(String.format(MessageConstants.INVALID_FIELD_MESSAGE, field));
+    }
+}
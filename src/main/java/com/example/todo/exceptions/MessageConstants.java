@@ -6,4 +6,15 @@ public class MessageConstants {
 
     public static final String PRIORITY_REQUIRED_MESSAGE = "Priority for a task is required";
     public static final String PRIORITY_RANGE_MESSAGE = "Priority must be between 1 and 5";
+    public static final String TITLE_LENGTH_MESSAGE = "Title must be at most 255 characters long";
+    public static final String ID_NOT_ALLOWED_MESSAGE = "id is not allowed in this request";
+    public static final String ID_REQUIRED_MESSAGE = "id is required in this request";
+    public static final String TASK_REQUIRED_MESSAGE = "Task is required";
+    public static final String TASK_NOT_FOUND_MESSAGE = "Task with id %s does not exist";
+    public static final String TASK_MODIFIED_MESSAGE = "Task with id %s has been modified since it was read";
+    public static final String INVALID_FIELD_MESSAGE = "%s is not a field of a task";
+    public static final String STATUS_REQUIRED_MESSAGE = "Target status is required";
+    public static final String TRANSITION_FILTER_REQUIRED_MESSAGE = "Transition requires ids, outdatedOnly or priority";
+    public static final String RATE_LIMITED_MESSAGE = "Too many requests, retry after %s seconds";
+    public static final String OVERLOADED_MESSAGE = "Server is overloaded, retry after %s seconds";
 }
@@ -0,0 +1,7 @@
+package com.example.todo.exceptions;
+
+public class TaskModifiedException extends RuntimeException {
+    public TaskModifiedException(Long id) {
+        super(String.format(MessageConstants.TASK_MODIFIED_MESSAGE, id));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.todo.exceptions;
+
+public class TransitionFilterRequiredException extends RuntimeException {
+    public TransitionFilterRequiredException() {
+        super(MessageConstants.TRANSITION_FILTER_REQUIRED_MESSAGE);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.todo.exceptions.advice;
+
+import com.example.todo.exceptions.InvalidCursorException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ControllerAdvice
+public class InvalidCursorAdvice {
+    @ResponseBody
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> invalidCursorHandler(InvalidCursorException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("errors", e.getMessage());
+        return body;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.todo.exceptions.advice;
+
+import com.example.todo.exceptions.RateLimitedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ControllerAdvice
+public class RateLimitedAdvice {
+    @ResponseBody
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<Map<String, Object>> rateLimitedHandler(RateLimitedException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("errors", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(body);
+    }
+}
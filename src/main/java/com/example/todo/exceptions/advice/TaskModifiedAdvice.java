@@ -0,0 +1,23 @@
+package com.example.todo.exceptions.advice;
+
+import com.example.todo.exceptions.TaskModifiedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ControllerAdvice
+public class TaskModifiedAdvice {
+    @ResponseBody
+    @ExceptionHandler(TaskModifiedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public Map<String, Object> taskModifiedHandler(TaskModifiedException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("errors", e.getMessage());
+        return body;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.todo.exceptions.advice;
+
+import com.example.todo.exceptions.TransitionFilterRequiredException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ControllerAdvice
+public class TransitionFilterRequiredAdvice {
+    @ResponseBody
+    @ExceptionHandler(TransitionFilterRequiredException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> transitionFilterRequiredHandler(TransitionFilterRequiredException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("errors", e.getMessage());
+        return body;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.todo.mapped;
+
+import java.util.Arrays;
+
+/**
+ * Due dates of tasks in ascending order, with ties ordered by id, as parallel primitive arrays of epoch millis,
+ * task ids and record numbers. Inserting and removing shift the tail of the arrays. Not thread-safe.
+ */
+final class DueDateIndex {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] millis = new long[MIN_CAPACITY];
+    private long[] ids = new long[MIN_CAPACITY];
+    private int[] records = new int[MIN_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    long millis(int position) {
+        return millis[position];
+    }
+
+    int record(int position) {
+        return records[position];
+    }
+
+    void add(long dueDate, long id, int record) {
+        int position = search(dueDate, id);
+        if (position >= 0) {
+            records[position] = record;
+            return;
+        }
+        position = -position - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(millis, position, millis, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        System.arraycopy(records, position, records, position + 1, size - position);
+        set(position, dueDate, id, record);
+        size++;
+    }
+
+    void remove(long dueDate, long id) {
+        int position = search(dueDate, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(millis, position + 1, millis, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        System.arraycopy(records, position + 1, records, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Appends an entry without keeping the order, for loading many entries before a single {@link #sort()}.
+     */
+    void append(long dueDate, long id, int record) {
+        ensureCapacity(size + 1);
+        set(size++, dueDate, id, record);
+    }
+
+    /**
+     * Restores the order after {@link #append}s, with a heapsort on the arrays themselves.
+     */
+    void sort() {
+        for (int parent = size / 2 - 1; parent >= 0; parent--) {
+            siftDown(parent, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    /**
+     * Position of the first due date that is not before {@code dueDate}.
+     */
+    int lowerBound(long dueDate) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (millis[middle] < dueDate) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private int search(long dueDate, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(millis[middle], ids[middle], dueDate, id);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void siftDown(int parent, int end) {
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= end) {
+                return;
+            }
+            if (child + 1 < end && compare(child + 1, child) > 0) {
+                child++;
+            }
+            if (compare(parent, child) >= 0) {
+                return;
+            }
+            swap(parent, child);
+            parent = child;
+        }
+    }
+
+    private int compare(int first, int second) {
+        return compare(millis[first], ids[first], millis[second], ids[second]);
+    }
+
+    private static int compare(long firstMillis, long firstId, long secondMillis, long secondId) {
+        int comparison = Long.compare(firstMillis, secondMillis);
+        return comparison != 0 ? comparison : Long.compare(firstId, secondId);
+    }
+
+    private void swap(int first, int second) {
+        long swappedMillis = millis[first];
+        long swappedId = ids[first];
+        int swappedRecord = records[first];
+        set(first, millis[second], ids[second], records[second]);
+        set(second, swappedMillis, swappedId, swappedRecord);
+    }
+
+    private void set(int position, long dueDate, long id, int record) {
+        millis[position] = dueDate;
+        ids[position] = id;
+        records[position] = record;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > millis.length) {
+            int newCapacity = Math.max(capacity, millis.length * 2);
+            millis = Arrays.copyOf(millis, newCapacity);
+            ids = Arrays.copyOf(ids, newCapacity);
+            records = Arrays.copyOf(records, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.todo.mapped;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Configuration of the memory-mapped task store, active with {@code todo.storage=mapped}
+ */
+@Configuration
+@ConditionalOnProperty(name = "todo.storage", havingValue = "mapped")
+@EnableConfigurationProperties(MappedStorageProperties.class)
+public class MappedStorageConfig {
+    @Bean(destroyMethod = "close")
+    MappedTaskRepository mappedTaskRepository(MappedStorageProperties properties) throws IOException {
+        return new MappedTaskRepository(properties.path(), properties.segmentRecords(), properties.syncWrites());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.todo.mapped;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Memory-mapped task storage, see {@code todo.mapped.*} in application-mapped.properties. The record file at
+ * {@code path} grows by {@code segmentRecords} records at a time; with {@code syncWrites} every save is forced to
+ * disk before it is acknowledged. Every {@code compactionInterval} the file is compacted when at least
+ * {@code compactionGarbageRatio} of its records hold superseded versions.
+ */
+@ConfigurationProperties("todo.mapped")
+public record MappedStorageProperties(Path path,
+                                      int segmentRecords,
+                                      boolean syncWrites,
+                                      Duration compactionInterval,
+                                      double compactionGarbageRatio) {
+}
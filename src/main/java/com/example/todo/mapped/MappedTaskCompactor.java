@@ -0,0 +1,58 @@
+package com.example.todo.mapped;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically compacts the memory-mapped task store once enough of it holds superseded task versions.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.storage", havingValue = "mapped")
+// Nothing depends on it, with lazy initialization it would never be created
+@Lazy(false)
+public class MappedTaskCompactor {
+    private static final Logger log = LoggerFactory.getLogger(MappedTaskCompactor.class);
+
+    private final MappedTaskRepository repository;
+    private final double garbageRatio;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MappedTaskCompactor(MappedTaskRepository repository, MappedStorageProperties properties) {
+        this.repository = repository;
+        this.garbageRatio = properties.compactionGarbageRatio();
+        long interval = properties.compactionInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::compactIfNeeded, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void compactIfNeeded() {
+        double ratio = repository.garbageRatio();
+        if (ratio < garbageRatio) {
+            return;
+        }
+        try {
+            repository.compact();
+            log.info("Compacted the task store, {}% of its records were superseded", Math.round(ratio * 100));
+        } catch (IOException e) {
+            // The original file is only replaced once the compacted one is complete
+            log.warn("Compacting the task store failed", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.todo.mapped;
+
+import com.example.todo.entity.Task;
+import com.example.todo.exceptions.IdNotAllowedException;
+import com.example.todo.exceptions.PriorityRequiredException;
+import com.example.todo.exceptions.TaskModifiedException;
+import com.example.todo.exceptions.TaskNotFoundException;
+import com.example.todo.repository.TaskSort;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Core endpoints of the task API on the memory-mapped store, with the same contract as the servlet controller's.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "todo.storage", havingValue = "mapped")
+public class MappedTaskController {
+    private final MappedTaskRepository repository;
+
+    public MappedTaskController(MappedTaskRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostMapping("/tasks")
+    public ResponseEntity<Task> addTask(@Valid @RequestBody Task newTask) {
+        if (newTask.getId() != null) {
+            throw new IdNotAllowedException();
+        }
+        if (newTask.getPriority() == null) {
+            throw new PriorityRequiredException();
+        }
+        return new ResponseEntity<>(save(newTask), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/tasks")
+    public List<Task> all(@RequestParam(defaultValue = "id") Optional<String> sortBy,
+                          @RequestParam(defaultValue = "asc") Optional<String> orderBy,
+                          @RequestParam(defaultValue = "false") Optional<Boolean> outdatedOnly,
+                          @RequestParam Optional<Integer> priority) {
+        return repository.findAll(outdatedOnly, priority, TaskSort.of(sortBy, orderBy));
+    }
+
+    @GetMapping("/tasks/{id}")
+    public Task findById(@PathVariable Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+    }
+
+    @PatchMapping("/tasks/{id}")
+    public Task updateTask(@Valid @RequestBody Task updatedTask, @PathVariable Long id) {
+        if (updatedTask.getId() != null) {
+            throw new IdNotAllowedException();
+        }
+        Task existingTask = repository.findById(id)
+                .orElseThrow(() -> new TaskNotFoundException(id));
+        existingTask.updateTask(updatedTask);
+        try {
+            return save(existingTask);
+        } catch (OptimisticLockingFailureException e) {
+            throw new TaskModifiedException(id);
+        }
+    }
+
+    private Task save(Task task) {
+        try {
+            return repository.save(task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package com.example.todo.mapped;
+
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.util.TypeInformation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Task storage in a memory-mapped, append-only file of fixed-width records, for deployments without a database.
+ * Every save appends the whole task as a new record and an off-heap index maps each id to its latest record.
+ * Opening the file replays it to rebuild the index, up to the first record that is incomplete or fails its
+ * checksum. Compaction rewrites the latest records to a new file and swaps it in.
+ * Listings are resolved on the {@link TaskIndexes} of the latest records and only read the tasks they return.
+ */
+public class MappedTaskRepository implements Closeable {
+    static final int MAX_TITLE_BYTES = 765;
+    // Record layout. Record 0 holds the file header instead: magic, format and record size
+    private static final int CHECKSUM = 0;
+    private static final int ID = 4;
+    private static final int VERSION = 12;
+    private static final int LAST_MODIFIED = 20;
+    private static final int DUE_DATE = 28;
+    private static final int PRIORITY = 36;
+    private static final int STATUS = 40;
+    private static final int TITLE_LENGTH = 41;
+    private static final int TITLE = 43;
+    static final int RECORD_SIZE = TITLE + MAX_TITLE_BYTES;
+
+    private static final int MAGIC = 0x5441534B;
+    private static final int FORMAT = 1;
+    private static final long NULL_TIME = TaskIndexes.NO_DUE_DATE;
+    private static final String COMPACTION_SUFFIX = ".compact";
+
+    private final Path path;
+    private final int segmentRecords;
+    private final boolean syncWrites;
+
+    // Guarded by this
+    private FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final OffHeapIdIndex index = new OffHeapIdIndex();
+    private final TaskIndexes indexes = new TaskIndexes();
+    private long records;
+    private long maxId;
+
+    /**
+     * Opens the store at {@code path}, creating it when missing. The file grows by segments of
+     * {@code segmentRecords} records; with {@code syncWrites} every save is forced to disk before it returns.
+     */
+    public MappedTaskRepository(Path path, int segmentRecords, boolean syncWrites) throws IOException {
+        this.path = path;
+        this.segmentRecords = segmentRecords;
+        this.syncWrites = syncWrites;
+        // A compaction that did not complete left its output behind, the original file is still complete
+        Files.deleteIfExists(compactionPath());
+        open();
+    }
+
+    public synchronized Optional<Task> findById(Long id) {
+        long recordNumber = index.get(id);
+        return recordNumber < 0 ? Optional.empty() : Optional.of(read(recordNumber));
+    }
+
+    public List<Task> findAll(Sort sort) {
+        return findAll(Optional.empty(), Optional.empty(), sort);
+    }
+
+    /**
+     * Latest version of every task matching the listing filters, like {@code TaskSpecifications.filter}, in the
+     * given order. Ties, and tasks without the sort property, are ordered by id. Listings sorted by id, priority or
+     * due date walk the indexes in order; other sorts read the matching tasks and sort them.
+     */
+    public List<Task> findAll(Optional<Boolean> outdatedOnly, Optional<Integer> priority, Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        Sort.Order order = orders.isEmpty() ? Sort.Order.asc("id") : orders.get(0);
+        // Fails on unknown properties before any work is done
+        Comparator<Task> comparator = comparator(sort);
+        synchronized (this) {
+            BitSet matching = indexes.matching(outdatedOnly.orElse(false), priority.orElse(null),
+                    System.currentTimeMillis());
+            if (orders.size() <= 1) {
+                switch (order.getProperty()) {
+                    case "id":
+                        return readByIds(sortedIds(matching, order.isAscending()));
+                    case "priority":
+                        return readByIds(idsByPriority(matching, order.isAscending()));
+                    case "dueDate":
+                        return readByDueDate(matching, order.isAscending());
+                    default:
+                        break;
+                }
+            }
+            List<Task> tasks = new ArrayList<>(matching.cardinality());
+            for (int record = matching.nextSetBit(0); record >= 0; record = matching.nextSetBit(record + 1)) {
+                tasks.add(read(record));
+            }
+            tasks.sort(comparator);
+            return tasks;
+        }
+    }
+
+    /**
+     * Appends the task. A task without an id gets the next one; a task with the id of a stored task must carry
+     * its current version, which is then incremented.
+     */
+    public synchronized Task save(Task task) throws IOException {
+        if (task.getId() == null) {
+            task.setId(maxId + 1);
+            task.setVersion(0L);
+        } else {
+            long existing = index.get(task.getId());
+            if (existing < 0) {
+                task.setVersion(0L);
+            } else {
+                long storedVersion = segment(existing).getLong(offset(existing) + VERSION);
+                if (task.getVersion() == null || task.getVersion() != storedVersion) {
+                    throw new OptimisticLockingFailureException("Task " + task.getId() + " was updated concurrently");
+                }
+                task.setVersion(storedVersion + 1);
+            }
+        }
+        task.setLastModified(new Date());
+        append(task);
+        return task;
+    }
+
+    public synchronized long count() {
+        return index.size();
+    }
+
+    /**
+     * Share of the records that hold superseded versions.
+     */
+    public synchronized double garbageRatio() {
+        long stored = records - 1;
+        return stored == 0 ? 0 : (double) (stored - index.size()) / stored;
+    }
+
+    /**
+     * Rewrites the latest version of every task to a new file, which then replaces the current one. Readers and
+     * writers wait while it runs.
+     */
+    public synchronized void compact() throws IOException {
+        Path compacted = compactionPath();
+        try {
+            writeLatest(compacted);
+        } catch (IOException e) {
+            Files.deleteIfExists(compacted);
+            throw e;
+        }
+        release();
+        try {
+            Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            open();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        release();
+    }
+
+    private void writeLatest(Path compacted) throws IOException {
+        try (FileChannel output = FileChannel.open(compacted,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            writeHeader(record);
+            write(output, record);
+            for (long recordNumber = 1; recordNumber < records; recordNumber++) {
+                if (isLatest(recordNumber)) {
+                    record.clear();
+                    record.put(segment(recordNumber).slice(offset(recordNumber), RECORD_SIZE));
+                    record.flip();
+                    write(output, record);
+                }
+            }
+            output.force(true);
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long fileRecords = channel.size() / RECORD_SIZE;
+        for (long mapped = 0; mapped < Math.max(fileRecords, 1); mapped += segmentRecords) {
+            mapSegment();
+        }
+        MappedByteBuffer first = segments.get(0);
+        if (first.getInt(0) == 0) {
+            ByteBuffer header = ByteBuffer.allocate(RECORD_SIZE);
+            writeHeader(header);
+            first.put(0, header, 0, RECORD_SIZE);
+            first.force(0, RECORD_SIZE);
+        } else if (first.getInt(0) != MAGIC || first.getInt(4) != FORMAT || first.getInt(8) != RECORD_SIZE) {
+            throw new IOException(path + " is not a task store");
+        }
+
+        records = 1;
+        maxId = 0;
+        while (records < fileRecords && isValid(records)) {
+            long id = segment(records).getLong(offset(records) + ID);
+            index.put(id, records);
+            maxId = Math.max(maxId, id);
+            records++;
+        }
+        for (int record = 1; record < records; record++) {
+            if (isLatest(record)) {
+                addToIndexes(record, true);
+            }
+        }
+        indexes.sortDueDates();
+        // Anything after the last valid record is a torn write; clear it so that it is never mistaken for data
+        for (long recordNumber = records; recordNumber < fileRecords; recordNumber++) {
+            segment(recordNumber).put(offset(recordNumber), new byte[RECORD_SIZE]);
+        }
+    }
+
+    private void release() throws IOException {
+        // Mapped buffers are unmapped once they are garbage collected
+        segments.clear();
+        index.clear();
+        indexes.clear();
+        channel.close();
+    }
+
+    private void append(Task task) throws IOException {
+        // Record numbers are the positions of the index bitsets
+        if (records == Integer.MAX_VALUE) {
+            throw new IOException(path + " is full");
+        }
+        if (records == (long) segments.size() * segmentRecords) {
+            mapSegment();
+        }
+        byte[] title = task.getTitle() == null ? null : task.getTitle().getBytes(StandardCharsets.UTF_8);
+        if (title != null && title.length > MAX_TITLE_BYTES) {
+            throw new IllegalArgumentException("Task title is longer than " + MAX_TITLE_BYTES + " bytes");
+        }
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putLong(ID, task.getId());
+        record.putLong(VERSION, task.getVersion());
+        record.putLong(LAST_MODIFIED, toMillis(task.getLastModified()));
+        record.putLong(DUE_DATE, toMillis(task.getDueDate()));
+        record.putInt(PRIORITY, task.getPriority() == null ? 0 : task.getPriority());
+        record.put(STATUS, task.getStatus() == null ? -1 : (byte) task.getStatus().ordinal());
+        record.putShort(TITLE_LENGTH, title == null ? -1 : (short) title.length);
+        if (title != null) {
+            record.put(TITLE, title);
+        }
+        record.putInt(CHECKSUM, checksum(record));
+
+        MappedByteBuffer segment = segment(records);
+        int offset = offset(records);
+        segment.put(offset, record, 0, RECORD_SIZE);
+        if (syncWrites) {
+            segment.force(offset, RECORD_SIZE);
+        }
+        long previous = index.get(task.getId());
+        if (previous >= 0) {
+            MappedByteBuffer previousSegment = segment(previous);
+            int previousOffset = offset(previous);
+            indexes.remove((int) previous, task.getId(),
+                    previousSegment.get(previousOffset + STATUS),
+                    previousSegment.getInt(previousOffset + PRIORITY),
+                    previousSegment.getLong(previousOffset + DUE_DATE));
+        }
+        index.put(task.getId(), records);
+        addToIndexes((int) records, false);
+        maxId = Math.max(maxId, task.getId());
+        records++;
+    }
+
+    private void addToIndexes(int record, boolean bulk) {
+        MappedByteBuffer segment = segment(record);
+        int offset = offset(record);
+        indexes.add(record, segment.getLong(offset + ID), segment.get(offset + STATUS),
+                segment.getInt(offset + PRIORITY), segment.getLong(offset + DUE_DATE), bulk);
+    }
+
+    /**
+     * Ids of the matching records in ascending or descending order.
+     */
+    private long[] sortedIds(BitSet matching, boolean ascending) {
+        long[] ids = ids(matching);
+        Arrays.sort(ids);
+        if (!ascending) {
+            reverse(ids);
+        }
+        return ids;
+    }
+
+    /**
+     * Ids of the matching records by priority, tasks without one first in ascending order, then by id.
+     */
+    private long[] idsByPriority(BitSet matching, boolean ascending) {
+        long[] ids = new long[matching.cardinality()];
+        int count = 0;
+        for (int step = 0; step <= TaskIndexes.MAX_PRIORITY; step++) {
+            BitSet withPriority = indexes.priority(ascending ? step : TaskIndexes.MAX_PRIORITY - step);
+            int from = count;
+            for (int record = matching.nextSetBit(0); record >= 0; record = matching.nextSetBit(record + 1)) {
+                if (withPriority.get(record)) {
+                    ids[count++] = id(record);
+                }
+            }
+            Arrays.sort(ids, from, count);
+        }
+        return ids;
+    }
+
+    /**
+     * Matching tasks by due date, tasks without one first in ascending order, then by id.
+     */
+    private List<Task> readByDueDate(BitSet matching, boolean ascending) {
+        List<Task> tasks = new ArrayList<>(matching.cardinality());
+        BitSet withoutDueDate = (BitSet) matching.clone();
+        withoutDueDate.and(indexes.withoutDueDate());
+        long[] undatedIds = ids(withoutDueDate);
+        Arrays.sort(undatedIds);
+        if (ascending) {
+            addByIds(tasks, undatedIds);
+        }
+        DueDateIndex dueDates = indexes.dueDates();
+        if (ascending) {
+            for (int position = 0; position < dueDates.size(); position++) {
+                addIfMatching(tasks, matching, dueDates.record(position));
+            }
+        } else {
+            // Groups of equal due dates in descending order, each still ordered by id
+            int end = dueDates.size();
+            while (end > 0) {
+                int start = end - 1;
+                while (start > 0 && dueDates.millis(start - 1) == dueDates.millis(end - 1)) {
+                    start--;
+                }
+                for (int position = start; position < end; position++) {
+                    addIfMatching(tasks, matching, dueDates.record(position));
+                }
+                end = start;
+            }
+            addByIds(tasks, undatedIds);
+        }
+        return tasks;
+    }
+
+    private void addIfMatching(List<Task> tasks, BitSet matching, int record) {
+        if (matching.get(record)) {
+            tasks.add(read(record));
+        }
+    }
+
+    private List<Task> readByIds(long[] ids) {
+        List<Task> tasks = new ArrayList<>(ids.length);
+        addByIds(tasks, ids);
+        return tasks;
+    }
+
+    private void addByIds(List<Task> tasks, long[] ids) {
+        for (long id : ids) {
+            tasks.add(read(index.get(id)));
+        }
+    }
+
+    private long[] ids(BitSet records) {
+        long[] ids = new long[records.cardinality()];
+        int count = 0;
+        for (int record = records.nextSetBit(0); record >= 0; record = records.nextSetBit(record + 1)) {
+            ids[count++] = id(record);
+        }
+        return ids;
+    }
+
+    private long id(long recordNumber) {
+        return segment(recordNumber).getLong(offset(recordNumber) + ID);
+    }
+
+    private Task read(long recordNumber) {
+        MappedByteBuffer segment = segment(recordNumber);
+        int offset = offset(recordNumber);
+        Task task = new Task();
+        task.setId(segment.getLong(offset + ID));
+        task.setVersion(segment.getLong(offset + VERSION));
+        task.setLastModified(toDate(segment.getLong(offset + LAST_MODIFIED)));
+        task.setDueDate(toDate(segment.getLong(offset + DUE_DATE)));
+        int priority = segment.getInt(offset + PRIORITY);
+        if (priority != 0) {
+            task.setPriority(priority);
+        }
+        byte status = segment.get(offset + STATUS);
+        task.setStatus(status < 0 ? null : TaskStatus.values()[status]);
+        short titleLength = segment.getShort(offset + TITLE_LENGTH);
+        if (titleLength >= 0) {
+            byte[] title = new byte[titleLength];
+            segment.get(offset + TITLE, title);
+            task.setTitle(new String(title, StandardCharsets.UTF_8));
+        }
+        return task;
+    }
+
+    private boolean isLatest(long recordNumber) {
+        return index.get(id(recordNumber)) == recordNumber;
+    }
+
+    private boolean isValid(long recordNumber) {
+        ByteBuffer record = segment(recordNumber).slice(offset(recordNumber), RECORD_SIZE);
+        return record.getLong(ID) != 0 && record.getInt(CHECKSUM) == checksum(record);
+    }
+
+    private void mapSegment() throws IOException {
+        long position = (long) segments.size() * segmentRecords * RECORD_SIZE;
+        segments.add(channel.map(FileChannel.MapMode.READ_WRITE, position, (long) segmentRecords * RECORD_SIZE));
+    }
+
+    private MappedByteBuffer segment(long recordNumber) {
+        return segments.get((int) (recordNumber / segmentRecords));
+    }
+
+    private int offset(long recordNumber) {
+        return (int) (recordNumber % segmentRecords) * RECORD_SIZE;
+    }
+
+    private Path compactionPath() {
+        return path.resolveSibling(path.getFileName() + COMPACTION_SUFFIX);
+    }
+
+    private static void writeHeader(ByteBuffer header) {
+        header.putInt(0, MAGIC).putInt(4, FORMAT).putInt(8, RECORD_SIZE);
+    }
+
+    private static void write(FileChannel output, ByteBuffer record) throws IOException {
+        record.position(0).limit(RECORD_SIZE);
+        while (record.hasRemaining()) {
+            output.write(record);
+        }
+    }
+
+    private static int checksum(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.slice(ID, RECORD_SIZE - ID));
+        return (int) crc.getValue();
+    }
+
+    private static void reverse(long[] values) {
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            long swapped = values[i];
+            values[i] = values[j];
+            values[j] = swapped;
+        }
+    }
+
+    private static long toMillis(Date date) {
+        return date == null ? NULL_TIME : date.getTime();
+    }
+
+    private static Date toDate(long millis) {
+        return millis == NULL_TIME ? null : new Date(millis);
+    }
+
+    /**
+     * Orders tasks like the database does: nulls first in ascending order and last in descending order.
+     */
+    private static Comparator<Task> comparator(Sort sort) {
+        Comparator<Task> comparator = (first, second) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Task> byProperty = byProperty(order.getProperty());
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator.thenComparing(Task::getId);
+    }
+
+    private static Comparator<Task> byProperty(String property) {
+        return switch (property) {
+            case "id" -> nullsFirst(Task::getId);
+            case "title" -> nullsFirst(Task::getTitle);
+            case "dueDate" -> nullsFirst(Task::getDueDate);
+            case "priority" -> nullsFirst(Task::getPriority);
+            case "status" -> nullsFirst(Task::getStatus);
+            case "version" -> nullsFirst(Task::getVersion);
+            case "lastModified" -> nullsFirst(Task::getLastModified);
+            default -> throw new PropertyReferenceException(property, TypeInformation.of(Task.class), List.of());
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<Task> nullsFirst(Function<Task, T> property) {
+        return Comparator.comparing(property, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.todo.mapped;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Open-addressing hash map from task id to record number, held in a direct buffer outside the Java heap.
+ * Id 0 marks an empty slot and cannot be stored. Not thread-safe.
+ */
+final class OffHeapIdIndex {
+    private static final int SLOT_BYTES = 16;
+    private static final int MIN_CAPACITY = 16;
+    // A direct buffer is indexed by int, which bounds the table at 2^26 slots
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+
+    OffHeapIdIndex() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Record number of the id, or -1 when it is not in the index.
+     */
+    long get(long id) {
+        int slot = slotOf(id);
+        while (true) {
+            long key = slots.getLong(slot * SLOT_BYTES);
+            if (key == 0) {
+                return -1;
+            }
+            if (key == id) {
+                return slots.getLong(slot * SLOT_BYTES + Long.BYTES);
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+
+    void put(long id, long recordNumber) {
+        if (id == 0) {
+            throw new IllegalArgumentException("Id 0 cannot be indexed");
+        }
+        // Keep the table at most half full so that probe sequences stay short
+        if ((size + 1) * 2 > capacity) {
+            grow();
+        }
+        if (insert(id, recordNumber)) {
+            size++;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        allocate(MIN_CAPACITY);
+    }
+
+    private boolean insert(long id, long recordNumber) {
+        int slot = slotOf(id);
+        while (true) {
+            long key = slots.getLong(slot * SLOT_BYTES);
+            if (key == 0 || key == id) {
+                slots.putLong(slot * SLOT_BYTES, id);
+                slots.putLong(slot * SLOT_BYTES + Long.BYTES, recordNumber);
+                return key == 0;
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+
+    private void grow() {
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("Task index is full");
+        }
+        ByteBuffer previous = slots;
+        int previousCapacity = capacity;
+        allocate(capacity * 2);
+        for (int slot = 0; slot < previousCapacity; slot++) {
+            long key = previous.getLong(slot * SLOT_BYTES);
+            if (key != 0) {
+                insert(key, previous.getLong(slot * SLOT_BYTES + Long.BYTES));
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        slots = ByteBuffer.allocateDirect(newCapacity * SLOT_BYTES);
+        size = 0;
+    }
+
+    private int slotOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+    }
+}
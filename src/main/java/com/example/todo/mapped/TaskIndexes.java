@@ -0,0 +1,119 @@
+package com.example.todo.mapped;
+
+import com.example.todo.entity.TaskStatus;
+
+import java.util.BitSet;
+
+/**
+ * Secondary indexes over the latest records of a {@link MappedTaskRepository}: a bitset of record numbers per
+ * status and per priority, and the due dates in order. Listing filters resolve to bitset intersections, so tasks
+ * that do not match are never read and no values are boxed. Not thread-safe.
+ */
+final class TaskIndexes {
+    static final int MAX_PRIORITY = 5;
+    static final int NO_STATUS = -1;
+    static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    private final BitSet latest = new BitSet();
+    private final BitSet[] byStatus = new BitSet[TaskStatus.values().length];
+    // Slot 0 holds the tasks without a valid priority
+    private final BitSet[] byPriority = new BitSet[MAX_PRIORITY + 1];
+    private final BitSet withoutDueDate = new BitSet();
+    private final DueDateIndex dueDates = new DueDateIndex();
+
+    TaskIndexes() {
+        for (int status = 0; status < byStatus.length; status++) {
+            byStatus[status] = new BitSet();
+        }
+        for (int priority = 0; priority < byPriority.length; priority++) {
+            byPriority[priority] = new BitSet();
+        }
+    }
+
+    /**
+     * Indexes the latest record of a task. With {@code bulk} the due date is appended out of order and
+     * {@link #sortDueDates()} has to be called once all records are in.
+     */
+    void add(int record, long id, int status, int priority, long dueDate, boolean bulk) {
+        latest.set(record);
+        if (status != NO_STATUS) {
+            byStatus[status].set(record);
+        }
+        byPriority[prioritySlot(priority)].set(record);
+        if (dueDate == NO_DUE_DATE) {
+            withoutDueDate.set(record);
+        } else if (bulk) {
+            dueDates.append(dueDate, id, record);
+        } else {
+            dueDates.add(dueDate, id, record);
+        }
+    }
+
+    /**
+     * Removes a record that a newer version of its task replaces.
+     */
+    void remove(int record, long id, int status, int priority, long dueDate) {
+        latest.clear(record);
+        if (status != NO_STATUS) {
+            byStatus[status].clear(record);
+        }
+        byPriority[prioritySlot(priority)].clear(record);
+        if (dueDate == NO_DUE_DATE) {
+            withoutDueDate.clear(record);
+        } else {
+            dueDates.remove(dueDate, id);
+        }
+    }
+
+    void sortDueDates() {
+        dueDates.sort();
+    }
+
+    /**
+     * Records of the tasks matching the listing filters: with {@code outdatedOnly} the tasks that are not done
+     * and due before {@code now}, with a {@code priority} those of that priority.
+     */
+    BitSet matching(boolean outdatedOnly, Integer priority, long now) {
+        if (priority != null && (priority < 1 || priority > MAX_PRIORITY)) {
+            return new BitSet();
+        }
+        BitSet matching = (BitSet) (priority == null ? latest : byPriority[priority]).clone();
+        if (outdatedOnly) {
+            matching.and(byStatus[TaskStatus.NOT_DONE.ordinal()]);
+            BitSet dueBefore = new BitSet();
+            for (int position = dueDates.lowerBound(now) - 1; position >= 0; position--) {
+                dueBefore.set(dueDates.record(position));
+            }
+            matching.and(dueBefore);
+        }
+        return matching;
+    }
+
+    BitSet priority(int priority) {
+        return byPriority[prioritySlot(priority)];
+    }
+
+    BitSet withoutDueDate() {
+        return withoutDueDate;
+    }
+
+    DueDateIndex dueDates() {
+        return dueDates;
+    }
+
+    void clear() {
+        latest.clear();
+        for (BitSet records : byStatus) {
+            records.clear();
+        }
+        for (BitSet records : byPriority) {
+            records.clear();
+        }
+        withoutDueDate.clear();
+        dueDates.clear();
+    }
+
+    static int prioritySlot(int priority) {
+        return priority >= 1 && priority <= MAX_PRIORITY ? priority : 0;
+    }
+}
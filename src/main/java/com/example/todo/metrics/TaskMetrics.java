@@ -0,0 +1,66 @@
+package com.example.todo.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Application specific task metrics, and the tags shared with the HTTP request metrics
+ */
+@Component
+public class TaskMetrics {
+    public static final String FILTER_TAG = "filter";
+    public static final String PAGING_TAG = "paging";
+
+    private final MeterRegistry registry;
+
+    public TaskMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Low cardinality name of a combination of list filters, e.g. {@code outdated+priority}.
+     */
+    public static String filter(boolean outdatedOnly, boolean priority) {
+        if (outdatedOnly && priority) {
+            return "outdated+priority";
+        }
+        if (outdatedOnly) {
+            return "outdated";
+        }
+        return priority ? "priority" : "none";
+    }
+
+    public static String paging(boolean paged, boolean keyset) {
+        if (keyset) {
+            return "keyset";
+        }
+        return paged ? "offset" : "none";
+    }
+
+    /**
+     * Records the number of tasks returned by a listing endpoint. Filters run in the database,
+     * so this is also the number of rows fetched.
+     */
+    public void recordRows(String endpoint, String filter, long rows) {
+        DistributionSummary.builder("tasks.rows.returned")
+                .description("Tasks returned per request")
+                .baseUnit("rows")
+                .tags("endpoint", endpoint, FILTER_TAG, filter)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(rows);
+    }
+
+    /**
+     * Counts a request rejected by the rate limit ({@code rate}) or the concurrency limit ({@code concurrency}).
+     */
+    public void recordRejected(String reason) {
+        Counter.builder("tasks.requests.rejected")
+                .description("Task requests rejected by the request limits")
+                .tags("reason", reason)
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.todo.metrics;
+
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the list filter and paging mode to the {@code http.server.requests} metrics, so latency can be broken
+ * down by query shape
+ */
+@Component
+public class TaskRequestObservationConvention extends DefaultServerRequestObservationConvention {
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        HttpServletRequest request = context.getCarrier();
+        String filter = TaskMetrics.filter("true".equalsIgnoreCase(request.getParameter("outdatedOnly")),
+                request.getParameter("priority") != null);
+        String paging = TaskMetrics.paging(request.getParameter("page") != null
+                        || request.getParameter("size") != null,
+                request.getParameter("after") != null);
+        return super.getLowCardinalityKeyValues(context)
+                .and(TaskMetrics.FILTER_TAG, filter)
+                .and(TaskMetrics.PAGING_TAG, paging);
+    }
+}
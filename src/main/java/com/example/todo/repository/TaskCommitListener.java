@@ -0,0 +1,63 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.Task;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Arrays;
+
+/**
+ * Hibernate listener notified after every committed insert and update of a {@link Task}.
+ * Writes that bypass the persistence context, like bulk updates, are not seen; writers that insert tasks without
+ * Hibernate report them through {@link #onInsert(Task)}.
+ */
+public interface TaskCommitListener extends PostCommitInsertEventListener, PostCommitUpdateEventListener {
+    static void register(EntityManagerFactory entityManagerFactory, TaskCommitListener listener) {
+        EventListenerRegistry listenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        listenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+    }
+
+    /**
+     * Value of a property before the update, or {@code null} when the previous state is not known.
+     */
+    static Object previousValue(PostUpdateEvent event, String propertyName) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            return null;
+        }
+        return oldState[Arrays.asList(event.getPersister().getPropertyNames()).indexOf(propertyName)];
+    }
+
+    /**
+     * Called once a new task has been committed.
+     */
+    void onInsert(Task task);
+
+    @Override
+    default void onPostInsert(PostInsertEvent event) {
+        onInsert((Task) event.getEntity());
+    }
+
+    @Override
+    default boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Task.class;
+    }
+
+    @Override
+    default void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    default void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+}
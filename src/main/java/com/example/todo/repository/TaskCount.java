@@ -0,0 +1,14 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.TaskStatus;
+
+/**
+ * Number of tasks with a given status and priority
+ */
+public interface TaskCount {
+    TaskStatus getStatus();
+
+    Integer getPriority();
+
+    long getCount();
+}
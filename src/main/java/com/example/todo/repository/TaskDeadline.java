@@ -0,0 +1,12 @@
+package com.example.todo.repository;
+
+import java.util.Date;
+
+/**
+ * Id and due date of a task
+ */
+public interface TaskDeadline {
+    Long getId();
+
+    Date getDueDate();
+}
@@ -0,0 +1,24 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.Task;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository fragment for reading a subset of the columns of tasks
+ */
+public interface TaskProjectionRepository {
+    /**
+     * Reads only the given properties of the matching tasks, in the given order, skipping {@code offset} rows and
+     * returning at most {@code limit} when it is not negative. The tasks are plain objects outside the persistence
+     * context, with the other properties left unset.
+     */
+    List<Task> findAllProjected(Specification<Task> specification,
+                                Sort sort,
+                                Collection<String> properties,
+                                long offset,
+                                int limit);
+}
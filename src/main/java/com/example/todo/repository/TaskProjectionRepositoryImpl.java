@@ -0,0 +1,77 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+class TaskProjectionRepositoryImpl implements TaskProjectionRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Task> findAllProjected(Specification<Task> specification,
+                                       Sort sort,
+                                       Collection<String> properties,
+                                       long offset,
+                                       int limit) {
+        List<String> names = List.copyOf(properties);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+        query.multiselect(names.stream()
+                .<Selection<?>>map(name -> root.get(name).alias(name))
+                .toList());
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query).setFirstResult(Math.toIntExact(offset));
+        if (limit >= 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList().stream()
+                .map(tuple -> toTask(tuple, names))
+                .toList();
+    }
+
+    private static Task toTask(Tuple tuple, List<String> names) {
+        Task task = new Task();
+        for (String name : names) {
+            Object value = tuple.get(name);
+            switch (name) {
+                case "id" -> task.setId((Long) value);
+                case "title" -> task.setTitle((String) value);
+                case "dueDate" -> task.setDueDate((Date) value);
+                case "priority" -> {
+                    if (value != null) {
+                        task.setPriority((Integer) value);
+                    }
+                }
+                case "status" -> task.setStatus((TaskStatus) value);
+                case "version" -> task.setVersion((Long) value);
+                case "lastModified" -> task.setLastModified((Date) value);
+                default -> throw new IllegalArgumentException("Unknown task property " + name);
+            }
+        }
+        return task;
+    }
+}
@@ -1,12 +1,93 @@
 package com.example.todo.repository;
 
 import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>,
+        TaskStreamingRepository, TaskProjectionRepository {
     List<Task> findAll(Specification<Task> specification);
+
+    /**
+     * Paged listing query; the page and its count are kept in the query cache until a write to the task table.
+     * Unpaged listings are not cached: the query cache holds whole rows, and they may return the whole table.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Page<Task> findAll(Specification<Task> specification, Pageable pageable);
+
+    @Query("select t.status as status, t.priority as priority, count(t) as count from Task t "
+            + "group by t.status, t.priority")
+    List<TaskCount> countByStatusAndPriority();
+
+    @Query("select t.id as id, t.dueDate as dueDate from Task t where t.status = :status and t.dueDate is not null")
+    List<TaskDeadline> findDeadlinesByStatus(TaskStatus status);
+
+    /**
+     * Reads and locks the tasks that {@link #updateStatus(TaskStatus, Integer, Date, Date)} would update, so that
+     * the statement can be followed without reading the whole table afterwards.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id as id, t.status as status, t.priority as priority, t.dueDate as dueDate from Task t "
+            + "where t.status <> :status "
+            + "and (:priority is null or t.priority = :priority) "
+            + "and (cast(:dueBefore as timestamp) is null or (t.status = com.example.todo.entity.TaskStatus.NOT_DONE "
+            + "and t.dueDate < :dueBefore))")
+    List<TaskState> lockStatusCandidates(TaskStatus status, Integer priority, Date dueBefore);
+
+    /**
+     * Same as {@link #lockStatusCandidates(TaskStatus, Integer, Date)}, restricted to the given ids.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t.id as id, t.status as status, t.priority as priority, t.dueDate as dueDate from Task t "
+            + "where t.id in :ids and t.status <> :status "
+            + "and (:priority is null or t.priority = :priority) "
+            + "and (cast(:dueBefore as timestamp) is null or (t.status = com.example.todo.entity.TaskStatus.NOT_DONE "
+            + "and t.dueDate < :dueBefore))")
+    List<TaskState> lockStatusCandidatesByIds(Collection<Long> ids, TaskStatus status, Integer priority,
+                                              Date dueBefore);
+
+    /**
+     * Sets the status of the tasks matching the filters in a single UPDATE, bumping their version and modification
+     * time. A {@code null} filter matches every task; {@code dueBefore} selects the tasks that are not done and due
+     * before it. Tasks already in the target status are left alone. No Hibernate events are fired.
+     *
+     * @return the number of tasks updated
+     */
+    @Transactional
+    @Modifying
+    @Query("update Task t set t.status = :status, t.version = t.version + 1, t.lastModified = :now "
+            + "where t.status <> :status "
+            + "and (:priority is null or t.priority = :priority) "
+            + "and (cast(:dueBefore as timestamp) is null or (t.status = com.example.todo.entity.TaskStatus.NOT_DONE "
+            + "and t.dueDate < :dueBefore))")
+    int updateStatus(TaskStatus status, Integer priority, Date dueBefore, Date now);
+
+    /**
+     * Same as {@link #updateStatus(TaskStatus, Integer, Date, Date)}, restricted to the given ids.
+     */
+    @Transactional
+    @Modifying
+    @Query("update Task t set t.status = :status, t.version = t.version + 1, t.lastModified = :now "
+            + "where t.id in :ids and t.status <> :status "
+            + "and (:priority is null or t.priority = :priority) "
+            + "and (cast(:dueBefore as timestamp) is null or (t.status = com.example.todo.entity.TaskStatus.NOT_DONE "
+            + "and t.dueDate < :dueBefore))")
+    int updateStatusByIds(Collection<Long> ids, TaskStatus status, Integer priority, Date dueBefore, Date now);
 }
@@ -0,0 +1,28 @@
+package com.example.todo.repository;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Optional;
+
+/**
+ * Builds the {@link Sort} of task listings from their {@code sortBy} and {@code orderBy} query parameters
+ */
+public class TaskSort {
+    private TaskSort() {
+    }
+
+    public static Sort of(Optional<String> sortBy, Optional<String> orderBy) {
+        Sort sortOptions = Sort.unsorted();
+        if (sortBy.isPresent()) {
+            sortOptions = Sort.by(sortBy.get());
+        }
+        if (orderBy.isPresent()) {
+            if (orderBy.get().equalsIgnoreCase("desc")) {
+                sortOptions = sortOptions.descending();
+            } else {
+                sortOptions = sortOptions.ascending();
+            }
+        }
+        return sortOptions;
+    }
+}
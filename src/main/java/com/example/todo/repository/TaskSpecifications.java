@@ -0,0 +1,91 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Composable {@link Specification}s for filtering {@link Task}s at the database
+ */
+public class TaskSpecifications {
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> hasStatus(TaskStatus status) {
+        return (root, query, builder) -> builder.equal(root.get("status"), status);
+    }
+
+    public static Specification<Task> hasPriority(int priority) {
+        return (root, query, builder) -> builder.equal(root.get("priority"), priority);
+    }
+
+    public static Specification<Task> idIn(Collection<Long> ids) {
+        return (root, query, builder) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Tasks with a due date strictly before the given date. Tasks without a due date never match.
+     */
+    public static Specification<Task> dueBefore(Date date) {
+        return (root, query, builder) -> builder.lessThan(root.get("dueDate"), date);
+    }
+
+    /**
+     * Tasks that are not done and whose due date has passed.
+     */
+    public static Specification<Task> isOutdated(Date now) {
+        return hasStatus(TaskStatus.NOT_DONE).and(dueBefore(now));
+    }
+
+    /**
+     * Builds the filter used by the task listing from its optional query parameters.
+     */
+    public static Specification<Task> filter(Optional<Boolean> outdatedOnly, Optional<Integer> priority) {
+        List<Specification<Task>> specifications = new ArrayList<>();
+        if (outdatedOnly.isPresent() && outdatedOnly.get()) {
+            specifications.add(isOutdated(new Date()));
+        }
+        priority.ifPresent(value -> specifications.add(hasPriority(value)));
+        return Specification.allOf(specifications);
+    }
+
+    /**
+     * Keyset "seek" predicate matching the tasks that come after the row identified by
+     * {@code (value, id)} when ordering by {@code property} and then {@code id}, both in {@code direction}.
+     * Null values are assumed to sort lowest, as they do in H2.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Task> after(String property, Object value, long id, Sort.Direction direction) {
+        return (root, query, builder) -> {
+            Expression<Long> idPath = root.get("id");
+            Predicate idBeyond = direction.isAscending()
+                    ? builder.greaterThan(idPath, id)
+                    : builder.lessThan(idPath, id);
+            if (property.equals("id")) {
+                return idBeyond;
+            }
+            Expression path = root.get(property);
+            if (value == null) {
+                Predicate tie = builder.and(builder.isNull(path), idBeyond);
+                return direction.isAscending() ? builder.or(tie, builder.isNotNull(path)) : tie;
+            }
+            Comparable comparable = (Comparable) value;
+            Predicate beyond = direction.isAscending()
+                    ? builder.greaterThan(path, comparable)
+                    : builder.lessThan(path, comparable);
+            Predicate tie = builder.and(builder.equal(path, comparable), idBeyond);
+            return direction.isAscending()
+                    ? builder.or(beyond, tie)
+                    : builder.or(beyond, tie, builder.isNull(path));
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.TaskStatus;
+
+import java.util.Date;
+
+/**
+ * Id, status, priority and due date of a task
+ */
+public interface TaskState {
+    Long getId();
+
+    TaskStatus getStatus();
+
+    Integer getPriority();
+
+    Date getDueDate();
+}
@@ -0,0 +1,18 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.Task;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.function.Consumer;
+
+/**
+ * Repository fragment for reading large result sets without materializing them
+ */
+public interface TaskStreamingRepository {
+    /**
+     * Hands every {@link Task} matching the specification to the consumer in the given order, one row at a time.
+     * Tasks are read-only and detached after the consumer returns, so memory use does not grow with the result.
+     */
+    void streamAll(Specification<Task> specification, Sort sort, Consumer<Task> consumer);
+}
@@ -0,0 +1,148 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ConditionalOnJpaStorage;
+import com.example.todo.dto.TaskBatchResult;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import com.example.todo.exceptions.MessageConstants;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TaskState;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Validates and persists batches of {@link Task}s in a single transaction.
+ * Invalid items are reported individually and do not prevent the valid ones from being saved.
+ */
+@Service
+@ConditionalOnJpaStorage
+public class TaskBatchService {
+    /**
+     * Number of tasks a transition updated and their state before it, or {@code null} states when the statement
+     * also moved tasks inserted after they were read.
+     */
+    public record Transition(int updated, List<TaskState> moved) {
+    }
+
+    private final TaskRepository repository;
+    private final Validator validator;
+
+    public TaskBatchService(TaskRepository repository, Validator validator) {
+        this.repository = repository;
+        this.validator = validator;
+    }
+
+    @Transactional
+    public List<TaskBatchResult> createAll(List<Task> newTasks) {
+        TaskBatchResult[] results = new TaskBatchResult[newTasks.size()];
+        List<Task> validTasks = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < newTasks.size(); i++) {
+            Task newTask = newTasks.get(i);
+            List<String> errors = validate(newTask);
+            if (newTask != null) {
+                if (newTask.getId() != null) {
+                    errors.add(MessageConstants.ID_NOT_ALLOWED_MESSAGE);
+                }
+                if (newTask.getPriority() == null) {
+                    errors.add(MessageConstants.PRIORITY_REQUIRED_MESSAGE);
+                }
+            }
+            if (errors.isEmpty()) {
+                validTasks.add(newTask);
+                validIndexes.add(i);
+            } else {
+                results[i] = TaskBatchResult.failure(i, HttpStatus.BAD_REQUEST.value(), errors);
+            }
+        }
+
+        List<Task> savedTasks = repository.saveAll(validTasks);
+        for (int i = 0; i < savedTasks.size(); i++) {
+            int index = validIndexes.get(i);
+            results[index] = TaskBatchResult.success(index, HttpStatus.CREATED.value(), savedTasks.get(i));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Applies partial updates to existing tasks. Unlike single updates, every item must carry the id of the task
+     * it updates.
+     */
+    @Transactional
+    public List<TaskBatchResult> updateAll(List<Task> updatedTasks) {
+        List<Long> ids = updatedTasks.stream()
+                .filter(Objects::nonNull)
+                .map(Task::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Long, Task> existingTasks = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<TaskBatchResult> results = new ArrayList<>(updatedTasks.size());
+        for (int i = 0; i < updatedTasks.size(); i++) {
+            Task updatedTask = updatedTasks.get(i);
+            List<String> errors = validate(updatedTask);
+            if (updatedTask != null && updatedTask.getId() == null) {
+                errors.add(MessageConstants.ID_REQUIRED_MESSAGE);
+            }
+            if (!errors.isEmpty()) {
+                results.add(TaskBatchResult.failure(i, HttpStatus.BAD_REQUEST.value(), errors));
+                continue;
+            }
+            Task existingTask = existingTasks.get(updatedTask.getId());
+            if (existingTask == null) {
+                String error = String.format(MessageConstants.TASK_NOT_FOUND_MESSAGE, updatedTask.getId());
+                results.add(TaskBatchResult.failure(i, HttpStatus.NOT_FOUND.value(), List.of(error)));
+                continue;
+            }
+            existingTask.updateTask(updatedTask);
+            results.add(TaskBatchResult.success(i, HttpStatus.OK.value(), existingTask));
+        }
+        // The loaded tasks are managed, so their changes are flushed as batched updates on commit
+        repository.saveAll(existingTasks.values());
+        return results;
+    }
+
+    /**
+     * Moves the tasks matching the ids, when given, and the filters to another status with a single UPDATE statement.
+     * The matching tasks are read and locked first, so that their previous state is known without reading the whole
+     * table afterwards.
+     */
+    @Transactional
+    public Transition transition(Collection<Long> ids, TaskStatus status, Integer priority, Date dueBefore,
+                                 Date now) {
+        List<TaskState> moved = ids == null
+                ? repository.lockStatusCandidates(status, priority, dueBefore)
+                : repository.lockStatusCandidatesByIds(ids, status, priority, dueBefore);
+        int updated = ids == null
+                ? repository.updateStatus(status, priority, dueBefore, now)
+                : repository.updateStatusByIds(ids, status, priority, dueBefore, now);
+        // Tasks inserted since the read are not locked but match the statement all the same
+        return new Transition(updated, updated == moved.size() ? moved : null);
+    }
+
+    private List<String> validate(Task task) {
+        List<String> errors = new ArrayList<>();
+        if (task == null) {
+            errors.add(MessageConstants.TASK_REQUIRED_MESSAGE);
+            return errors;
+        }
+        for (ConstraintViolation<Task> violation : validator.validate(task)) {
+            errors.add(violation.getMessage());
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ConditionalOnJpaStorage;
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Read-through cache for single {@link Task} lookups.
+ * Cached tasks are shared between requests and must not be modified; writers refresh or evict entries instead.
+ */
+@Component
+@ConditionalOnJpaStorage
+public class TaskCache {
+    public static final String CACHE_NAME = "tasks";
+
+    private final TaskRepository repository;
+
+    public TaskCache(TaskRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Looks up a task, going to the database only on a cache miss. Missing tasks are not cached.
+     */
+    @Cacheable(cacheNames = CACHE_NAME, unless = "#result == null")
+    public Optional<Task> findById(Long id) {
+        return repository.findById(id);
+    }
+
+    @CachePut(cacheNames = CACHE_NAME, key = "#task.id")
+    public Task put(Task task) {
+        return task;
+    }
+
+    /**
+     * Drops every cached task, for writes that do not go through the entities.
+     */
+    @CacheEvict(cacheNames = CACHE_NAME, allEntries = true)
+    public void evictAll() {
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ConditionalOnJpaStorage;
+import com.example.todo.dto.TaskChange;
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskCommitListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Broadcasts committed task changes and overdue tasks to Server-Sent Events subscribers.
+ * Every change gets the next sequence number and is serialized once; the latest changes are kept in a ring buffer
+ * so that a reconnecting client can resume after the last sequence number it received. Event ids are prefixed with
+ * an epoch drawn at startup, since sequence numbers start over in every process.
+ */
+@Component
+@ConditionalOnJpaStorage
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class TaskChangeFeed implements TaskCommitListener {
+    private static final int REPLAY_CAPACITY = 1024;
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final String RESET_EVENT = "reset";
+    private static final char ID_SEPARATOR = '-';
+
+    private record Event(long sequence, String name, String data) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private long lastSent;
+
+        private Subscriber(SseEmitter emitter, long lastSent) {
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 1);
+    // Sends happen on this thread only, in sequence order, so writers never wait for slow clients
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-changes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this
+    private final Event[] replay = new Event[REPLAY_CAPACITY];
+    private long sequence;
+
+    // Only accessed from the sender thread
+    private final List<Subscriber> subscribers = new ArrayList<>();
+
+    public TaskChangeFeed(ObjectMapper objectMapper, EntityManagerFactory entityManagerFactory) {
+        this.objectMapper = objectMapper;
+        TaskCommitListener.register(entityManagerFactory, this);
+        sender.scheduleWithFixedDelay(this::sendHeartbeats, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Subscribes to the changes following {@code lastEventId}, or to new changes only when it is {@code null}.
+     * When the changes after {@code lastEventId} are no longer buffered, or it was sent by another process,
+     * a {@code reset} event tells the client to reload the tasks instead.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter();
+        long lastSequence = lastEventId == null ? 0 : sequenceOf(lastEventId);
+        sender.execute(() -> {
+            List<Event> missed = new ArrayList<>();
+            boolean complete;
+            long latest;
+            synchronized (this) {
+                latest = sequence;
+                long from = lastEventId == null ? latest : lastSequence;
+                complete = from >= 0 && from <= latest && from >= latest - REPLAY_CAPACITY;
+                if (complete) {
+                    for (long missedSequence = from + 1; missedSequence <= latest; missedSequence++) {
+                        missed.add(replay[(int) (missedSequence % REPLAY_CAPACITY)]);
+                    }
+                }
+            }
+            Subscriber subscriber = new Subscriber(emitter, latest);
+            try {
+                if (!complete) {
+                    emitter.send(SseEmitter.event().id(eventId(latest)).name(RESET_EVENT).data(""));
+                }
+                for (Event event : missed) {
+                    send(emitter, event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                return;
+            }
+            subscribers.add(subscriber);
+            Runnable unsubscribe = () -> sender.execute(() -> subscribers.remove(subscriber));
+            emitter.onCompletion(unsubscribe);
+            emitter.onTimeout(unsubscribe);
+            emitter.onError(error -> unsubscribe.run());
+        });
+        return emitter;
+    }
+
+    @Override
+    public void onInsert(Task task) {
+        publish(TaskChange.Type.CREATED, task.getId(), task);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Task task = (Task) event.getEntity();
+        publish(TaskChange.Type.UPDATED, task.getId(), task);
+    }
+
+    @EventListener
+    public void onOverdue(TaskOverdueEvent event) {
+        publish(TaskChange.Type.OVERDUE, event.id(), null);
+    }
+
+    /**
+     * Tells every subscriber to reload the tasks, after writes that bypass Hibernate events and change an unknown
+     * set of tasks.
+     */
+    public void reset() {
+        publish(RESET_EVENT, next -> "");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void publish(TaskChange.Type type, Long id, Task task) {
+        publish(type.name().toLowerCase(), next -> serialize(new TaskChange(next, type, id, task)));
+    }
+
+    /**
+     * Gives the event the next sequence number, keeps it for replay and queues it for the subscribers. Queueing
+     * under the lock keeps the sender in sequence order, which subscribers skipping replayed events rely on.
+     */
+    private synchronized void publish(String name, LongFunction<String> data) {
+        long next = sequence + 1;
+        Event event = new Event(next, name, data.apply(next));
+        replay[(int) (next % REPLAY_CAPACITY)] = event;
+        sequence = next;
+        broadcast(event);
+    }
+
+    private void broadcast(Event event) {
+        sender.execute(() -> {
+            for (Subscriber subscriber : List.copyOf(subscribers)) {
+                // A subscriber may already have received the event while it was replayed
+                if (event.sequence() <= subscriber.lastSent) {
+                    continue;
+                }
+                try {
+                    send(subscriber.emitter, event);
+                    subscriber.lastSent = event.sequence();
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(subscriber);
+                    subscriber.emitter.completeWithError(e);
+                }
+            }
+        });
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : List.copyOf(subscribers)) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private String serialize(TaskChange change) {
+        try {
+            return objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String eventId(long eventSequence) {
+        return epoch + ID_SEPARATOR + eventSequence;
+    }
+
+    /**
+     * Sequence number of an event id of this process, or -1 for the ids of other processes and unknown ids.
+     */
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf(ID_SEPARATOR);
+        if (separator != epoch.length() || !eventId.startsWith(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void send(SseEmitter emitter, Event event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(eventId(event.sequence()))
+                .name(event.name())
+                .data(event.data(), MediaType.APPLICATION_JSON));
+    }
+}
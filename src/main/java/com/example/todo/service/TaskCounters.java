@@ -0,0 +1,128 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ConditionalOnJpaStorage;
+import com.example.todo.dto.TaskStats;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import com.example.todo.repository.TaskCommitListener;
+import com.example.todo.repository.TaskCount;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TaskState;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Number of tasks per status and priority. The counts are read from the database once and then kept up to date
+ * from the inserts and updates Hibernate commits, so reading them never scans the table.
+ * Writes that bypass Hibernate events, like bulk updates, have to call {@link #onTransition(Collection, TaskStatus)}
+ * with the tasks they moved, or {@link #refresh()}, afterwards.
+ */
+@Component
+@ConditionalOnJpaStorage
+public class TaskCounters implements TaskCommitListener {
+    private static final int MAX_PRIORITY = 5;
+    // Slot 0 of every status holds the tasks without a valid priority, the last status row those without a status
+    private static final int SLOTS_PER_STATUS = MAX_PRIORITY + 1;
+    private static final int STATUS_ROWS = TaskStatus.values().length + 1;
+
+    private final TaskRepository repository;
+    private final TaskDueDates dueDates;
+    private volatile AtomicLongArray counts;
+
+    public TaskCounters(TaskRepository repository, TaskDueDates dueDates, EntityManagerFactory entityManagerFactory) {
+        this.repository = repository;
+        this.dueDates = dueDates;
+        this.counts = count();
+        TaskCommitListener.register(entityManagerFactory, this);
+    }
+
+    /**
+     * Recounts the tasks in the database. Changes committed while the count runs may be missed.
+     */
+    public void refresh() {
+        counts = count();
+    }
+
+    /**
+     * Current counts, the overdue count comes from the overdue index of {@link TaskDueDates}.
+     */
+    public TaskStats stats() {
+        long overdue = dueDates.overdueCount();
+        AtomicLongArray snapshot = counts;
+        long total = 0;
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        long[] byPriorityCounts = new long[SLOTS_PER_STATUS];
+        for (int row = 0; row < STATUS_ROWS; row++) {
+            long statusCount = 0;
+            for (int priority = 0; priority <= MAX_PRIORITY; priority++) {
+                long count = snapshot.get(row * SLOTS_PER_STATUS + priority);
+                statusCount += count;
+                byPriorityCounts[priority] += count;
+            }
+            if (row < TaskStatus.values().length) {
+                byStatus.put(TaskStatus.values()[row], statusCount);
+            }
+            total += statusCount;
+        }
+        Map<Integer, Long> byPriority = new LinkedHashMap<>();
+        for (int priority = 1; priority <= MAX_PRIORITY; priority++) {
+            byPriority.put(priority, byPriorityCounts[priority]);
+        }
+        return new TaskStats(total, overdue, byStatus, byPriority);
+    }
+
+    @Override
+    public void onInsert(Task task) {
+        counts.incrementAndGet(slot(task.getStatus(), task.getPriority()));
+    }
+
+    /**
+     * Moves the counts of tasks a bulk update set to {@code status}, given their state before the update.
+     */
+    public void onTransition(Collection<TaskState> moved, TaskStatus status) {
+        AtomicLongArray current = counts;
+        for (TaskState task : moved) {
+            current.decrementAndGet(slot(task.getStatus(), task.getPriority()));
+            current.incrementAndGet(slot(status, task.getPriority()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getOldState() == null) {
+            // Updates of entities that were not loaded in the session carry no previous state
+            refresh();
+            return;
+        }
+        int previousSlot = slot((TaskStatus) TaskCommitListener.previousValue(event, "status"),
+                (Integer) TaskCommitListener.previousValue(event, "priority"));
+        Task task = (Task) event.getEntity();
+        int currentSlot = slot(task.getStatus(), task.getPriority());
+        if (previousSlot != currentSlot) {
+            AtomicLongArray current = counts;
+            current.decrementAndGet(previousSlot);
+            current.incrementAndGet(currentSlot);
+        }
+    }
+
+    private AtomicLongArray count() {
+        AtomicLongArray fresh = new AtomicLongArray(STATUS_ROWS * SLOTS_PER_STATUS);
+        for (TaskCount count : repository.countByStatusAndPriority()) {
+            fresh.addAndGet(slot(count.getStatus(), count.getPriority()), count.getCount());
+        }
+        return fresh;
+    }
+
+    private static int slot(TaskStatus status, Integer priority) {
+        int prioritySlot = priority != null && priority >= 1 && priority <= MAX_PRIORITY ? priority : 0;
+        int statusRow = status != null ? status.ordinal() : STATUS_ROWS - 1;
+        return statusRow * SLOTS_PER_STATUS + prioritySlot;
+    }
+}
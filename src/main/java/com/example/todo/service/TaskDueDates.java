@@ -0,0 +1,181 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ConditionalOnJpaStorage;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import com.example.todo.repository.TaskCommitListener;
+import com.example.todo.repository.TaskDeadline;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TaskState;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the tasks that are not done ordered by due date and moves each one to an overdue index when its due date
+ * passes, publishing a {@link TaskOverdueEvent}. The state is loaded from the database at startup and follows the
+ * inserts and updates Hibernate commits.
+ */
+@Component
+@ConditionalOnJpaStorage
+public class TaskDueDates implements TaskCommitListener {
+    private record Deadline(long dueAt, long id) implements Comparable<Deadline> {
+        @Override
+        public int compareTo(Deadline other) {
+            int byDueDate = Long.compare(dueAt, other.dueAt);
+            return byDueDate != 0 ? byDueDate : Long.compare(id, other.id);
+        }
+    }
+
+    private final TaskRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-due-dates");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this
+    private final NavigableSet<Deadline> pending = new TreeSet<>();
+    private final Map<Long, Deadline> pendingById = new HashMap<>();
+    private final Set<Long> overdue = new HashSet<>();
+    private ScheduledFuture<?> wakeUp;
+    private long wakeUpAt = Long.MAX_VALUE;
+
+    public TaskDueDates(TaskRepository repository,
+                        EntityManagerFactory entityManagerFactory,
+                        ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+        // Tasks that are already overdue at startup had their event before the restart
+        refresh();
+        TaskCommitListener.register(entityManagerFactory, this);
+    }
+
+    /**
+     * Loads the deadlines from the database, again after writes that bypass Hibernate events and whose tasks are
+     * not known. Tasks found overdue are not announced again.
+     */
+    public void refresh() {
+        List<TaskDeadline> deadlines = repository.findDeadlinesByStatus(TaskStatus.NOT_DONE);
+        synchronized (this) {
+            pending.clear();
+            pendingById.clear();
+            overdue.clear();
+            for (TaskDeadline deadline : deadlines) {
+                track(deadline.getId(), TaskStatus.NOT_DONE, deadline.getDueDate());
+            }
+        }
+    }
+
+    /**
+     * Follows a bulk update that set the given tasks to {@code status}.
+     */
+    public void onTransition(Collection<TaskState> moved, TaskStatus status) {
+        for (TaskState task : moved) {
+            track(task.getId(), status, task.getDueDate());
+        }
+    }
+
+    public synchronized boolean isOverdue(Long id) {
+        return overdue.contains(id);
+    }
+
+    public synchronized int overdueCount() {
+        return overdue.size();
+    }
+
+    @Override
+    public void onInsert(Task task) {
+        track(task.getId(), task.getStatus(), task.getDueDate());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Task task = (Task) event.getEntity();
+        track(task.getId(), task.getStatus(), task.getDueDate());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Places a task in the overdue index, in the pending deadlines or nowhere, according to its current state.
+     */
+    private synchronized void track(long id, TaskStatus status, Date dueDate) {
+        Deadline previous = pendingById.remove(id);
+        if (previous != null) {
+            pending.remove(previous);
+        }
+        overdue.remove(id);
+        if (status != TaskStatus.NOT_DONE || dueDate == null) {
+            return;
+        }
+        if (dueDate.getTime() < System.currentTimeMillis()) {
+            overdue.add(id);
+            return;
+        }
+        Deadline deadline = new Deadline(dueDate.getTime(), id);
+        pending.add(deadline);
+        pendingById.put(id, deadline);
+        scheduleWakeUp();
+    }
+
+    private void fireDeadlines() {
+        List<Deadline> fired = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            while (!pending.isEmpty() && pending.first().dueAt() < now) {
+                Deadline deadline = pending.pollFirst();
+                pendingById.remove(deadline.id());
+                overdue.add(deadline.id());
+                fired.add(deadline);
+            }
+            wakeUp = null;
+            wakeUpAt = Long.MAX_VALUE;
+            scheduleWakeUp();
+        }
+        for (Deadline deadline : fired) {
+            eventPublisher.publishEvent(new TaskOverdueEvent(deadline.id(), new Date(deadline.dueAt())));
+        }
+    }
+
+    /**
+     * Makes sure the executor wakes up for the earliest pending deadline. Must hold the lock.
+     */
+    private void scheduleWakeUp() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long next = pending.first().dueAt();
+        if (wakeUp != null && wakeUpAt <= next) {
+            return;
+        }
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+        }
+        wakeUpAt = next;
+        // A task becomes overdue once the current time is strictly after its due date
+        long delay = Math.max(next + 1 - System.currentTimeMillis(), 0);
+        wakeUp = executor.schedule(this::fireDeadlines, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.todo.service;
+
+import java.util.Date;
+
+/**
+ * Published once when the due date of a task that is not done passes
+ */
+public record TaskOverdueEvent(Long id, Date dueDate) {
+}
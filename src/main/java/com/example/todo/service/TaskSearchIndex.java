@@ -0,0 +1,139 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ConditionalOnJpaStorage;
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskCommitListener;
+import com.example.todo.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of task titles. Titles are split into lower case words; every query word matches the
+ * words it is a prefix of, and a task matches when all query words do. The index is built from the database at
+ * startup and follows the inserts and updates Hibernate commits.
+ */
+@Component
+@ConditionalOnJpaStorage
+public class TaskSearchIndex implements TaskCommitListener {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // A query word equal to a title word counts more than one that is only its prefix
+    private static final double EXACT_MATCH_WEIGHT = 2.0;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock: word -> task id -> occurrences of the word in the title
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, List<String>> wordsByTask = new HashMap<>();
+
+    public TaskSearchIndex(TaskRepository repository, EntityManagerFactory entityManagerFactory) {
+        repository.streamAll(Specification.allOf(), Sort.by("id"), task -> index(task.getId(), task.getTitle()));
+        TaskCommitListener.register(entityManagerFactory, this);
+    }
+
+    /**
+     * Ids of the tasks matching every word of the query, best match first. Each matching title word adds its
+     * number of occurrences weighted by how rare the word is, ties are ordered by id.
+     */
+    public List<Long> search(String query) {
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String queryWord : queryWords) {
+                Map<Long, Double> wordScores = new HashMap<>();
+                for (Map.Entry<String, Map<Long, Integer>> posting : prefixedBy(queryWord).entrySet()) {
+                    double weight = Math.log(1 + (double) wordsByTask.size() / posting.getValue().size())
+                            * (posting.getKey().equals(queryWord) ? EXACT_MATCH_WEIGHT : 1.0);
+                    posting.getValue().forEach((id, occurrences) ->
+                            wordScores.merge(id, occurrences * weight, Double::sum));
+                }
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    Map<Long, Double> previous = scores;
+                    wordScores.keySet().retainAll(previous.keySet());
+                    wordScores.replaceAll((id, score) -> score + previous.get(id));
+                    scores = wordScores;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            return ranked.stream().map(Map.Entry::getKey).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onInsert(Task task) {
+        index(task.getId(), task.getTitle());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Task task = (Task) event.getEntity();
+        index(task.getId(), task.getTitle());
+    }
+
+    private void index(Long id, String title) {
+        List<String> words = tokenize(title);
+        lock.writeLock().lock();
+        try {
+            List<String> previousWords = wordsByTask.put(id, words);
+            if (words.equals(previousWords)) {
+                return;
+            }
+            if (previousWords != null) {
+                for (String word : previousWords) {
+                    Map<Long, Integer> tasks = postings.get(word);
+                    if (tasks != null && tasks.remove(id) != null && tasks.isEmpty()) {
+                        postings.remove(word);
+                    }
+                }
+            }
+            for (String word : words) {
+                postings.computeIfAbsent(word, key -> new HashMap<>()).merge(id, 1, Integer::sum);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private NavigableMap<String, Map<Long, Integer>> prefixedBy(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
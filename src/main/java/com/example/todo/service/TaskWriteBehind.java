@@ -0,0 +1,433 @@
+package com.example.todo.service;
+
+import com.example.todo.config.ConditionalOnJpaStorage;
+import com.example.todo.config.WriteBehindProperties;
+import com.example.todo.entity.Task;
+import com.example.todo.exceptions.OverloadedException;
+import com.example.todo.repository.TaskCommitListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Accepts new tasks without waiting for the database. A task takes its id from Hibernate's pooled sequence
+ * allocation, is appended to a local log that is forced to disk, then queued; a single background thread inserts
+ * the queued tasks with multi-row INSERT statements and reports them to the {@link TaskCommitListener}s.
+ * The log is forced with group commit: a flusher thread forces once for all the tasks appended since its last
+ * force and releases their submitters together.
+ * The log is replayed at startup, so accepted tasks survive a crash, and emptied whenever the queue is.
+ * When the database rejects a batch, its tasks are inserted one at a time and the ones still rejected are moved to
+ * a dead-letter file; batches failing because the database is unavailable are retried.
+ */
+@Component
+@ConditionalOnJpaStorage
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "todo.write-behind.enabled", havingValue = "true")
+// Recovers the log at startup even with lazy initialization, not at the first request
+@Lazy(false)
+public class TaskWriteBehind {
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteBehind.class);
+    private static final String INSERT = "insert into task (id, title, due_date, priority, status, version, "
+            + "last_modified) values ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final WriteBehindProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final List<TaskCommitListener> listeners;
+    private final SessionFactoryImplementor sessionFactory;
+    private final BeforeExecutionGenerator idGenerator;
+
+    private final Queue<Task> queue = new ConcurrentLinkedQueue<>();
+    // One permit per free queue slot, given back once the task has been inserted
+    private final Semaphore freeSlots;
+    // Appended to under this, like adding to the queue, so that the log is only emptied with the queue
+    private final FileChannel logChannel;
+    // Guarded by this: completed once the lines appended since the last force are on disk
+    private CompletableFuture<Void> nextForce = new CompletableFuture<>();
+    private boolean unforced;
+    // Guarded by this: logged tasks waiting for their force, not queued yet
+    private int unqueued;
+    private final Thread flusher;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public TaskWriteBehind(WriteBehindProperties properties,
+                           JdbcTemplate jdbcTemplate,
+                           ObjectMapper objectMapper,
+                           List<TaskCommitListener> listeners,
+                           EntityManagerFactory entityManagerFactory) throws IOException {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.listeners = listeners;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.idGenerator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Task.class)
+                .getGenerator();
+        this.freeSlots = new Semaphore(properties.queueCapacity());
+        this.logChannel = FileChannel.open(properties.logPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        recover();
+        this.flusher = new Thread(this::flush, "task-write-behind-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+        this.drainer = new Thread(this::drain, "task-write-behind");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Gives the task an id and queues it for insertion. Returns once the task is in the log on disk; when the queue
+     * stays full for the offer timeout the task is rejected instead.
+     */
+    public Task submit(Task task) {
+        try {
+            if (!freeSlots.tryAcquire(properties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new OverloadedException(RETRY_AFTER_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OverloadedException(RETRY_AFTER_SECONDS);
+        }
+        try {
+            task.setId(nextId(task));
+            task.setVersion(0L);
+            task.setLastModified(new Date());
+            ByteBuffer line = ByteBuffer.wrap(serialize(task));
+            CompletableFuture<Void> forced;
+            synchronized (this) {
+                while (line.hasRemaining()) {
+                    logChannel.write(line);
+                }
+                forced = nextForce;
+                unforced = true;
+                unqueued++;
+            }
+            LockSupport.unpark(flusher);
+            try {
+                forced.join();
+            } finally {
+                synchronized (this) {
+                    unqueued--;
+                    if (!forced.isCompletedExceptionally()) {
+                        queue.add(task);
+                    }
+                }
+            }
+        } catch (CompletionException e) {
+            freeSlots.release();
+            throw new UncheckedIOException((IOException) e.getCause());
+        } catch (IOException e) {
+            freeSlots.release();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            freeSlots.release();
+            throw e;
+        }
+        LockSupport.unpark(drainer);
+        return task;
+    }
+
+    /**
+     * Number of accepted tasks that are not inserted yet.
+     */
+    public int pending() {
+        return properties.queueCapacity() - freeSlots.availablePermits();
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException, InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        LockSupport.unpark(drainer);
+        drainer.join(TimeUnit.SECONDS.toMillis(30));
+        synchronized (this) {
+            logChannel.close();
+            // Releases submitters that appended after the flusher stopped
+            nextForce.completeExceptionally(new ClosedChannelException());
+        }
+    }
+
+    /**
+     * Inserts the logged tasks that did not reach the database before the last shutdown. Fails when the database is
+     * unavailable, tasks it rejects are moved to the dead-letter file.
+     */
+    void recover() throws IOException {
+        List<Task> logged = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(properties.logPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    Task task = objectMapper.readValue(line, Task.class);
+                    task.setVersion(0L);
+                    task.setLastModified(new Date());
+                    logged.add(task);
+                } catch (JsonProcessingException e) {
+                    // Only the last line can be incomplete, and it was never acknowledged
+                    log.warn("Skipping unreadable write-behind log entry");
+                }
+            }
+        }
+        for (int from = 0; from < logged.size(); from += properties.batchSize()) {
+            List<Task> batch = logged.subList(from, Math.min(from + properties.batchSize(), logged.size()));
+            List<Task> failed = insertOrDeadLetter(batch);
+            if (!failed.isEmpty()) {
+                throw new IllegalStateException("Could not recover " + failed.size()
+                        + " tasks from the write-behind log, the database is unavailable");
+            }
+        }
+        if (!logged.isEmpty()) {
+            log.info("Recovered {} tasks from the write-behind log", logged.size());
+        }
+        synchronized (this) {
+            logChannel.truncate(0);
+        }
+    }
+
+    /**
+     * Forces the log once for every group of lines appended while the previous force ran, then releases the
+     * submitters of the group.
+     */
+    private void flush() {
+        while (true) {
+            CompletableFuture<Void> group;
+            synchronized (this) {
+                if (!unforced) {
+                    if (!running) {
+                        return;
+                    }
+                    group = null;
+                } else {
+                    group = nextForce;
+                    nextForce = new CompletableFuture<>();
+                    unforced = false;
+                }
+            }
+            if (group == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                logChannel.force(false);
+                group.complete(null);
+            } catch (IOException e) {
+                log.error("Could not force the write-behind log", e);
+                group.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void drain() {
+        List<Task> batch = new ArrayList<>(properties.batchSize());
+        while (running || !queue.isEmpty()) {
+            Task task;
+            while (batch.size() < properties.batchSize() && (task = queue.poll()) != null) {
+                batch.add(task);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            List<Task> failed = insertOrDeadLetter(batch);
+            freeSlots.release(batch.size() - failed.size());
+            if (!failed.isEmpty()) {
+                // The failed tasks stay in the log and are retried, meanwhile the queue fills up and pushes back
+                if (!running) {
+                    return;
+                }
+                batch = new ArrayList<>(failed);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(RETRY_DELAY_MILLIS));
+                continue;
+            }
+            batch.clear();
+            truncateLogIfDrained();
+        }
+    }
+
+    /**
+     * Inserts the tasks and reports them to the listeners. When the database rejects the batch, the tasks are
+     * inserted one at a time so that a single bad task does not hold back the others, and those rejected again are
+     * moved to the dead-letter file.
+     *
+     * @return the tasks that could not be inserted because the database is unavailable, to be retried
+     */
+    private List<Task> insertOrDeadLetter(List<Task> batch) {
+        try {
+            afterInsert(insert(batch));
+            return List.of();
+        } catch (DataAccessException e) {
+            if (isTransient(e)) {
+                log.warn("Inserting {} queued tasks failed, retrying", batch.size(), e);
+                return batch;
+            }
+            log.warn("Inserting {} queued tasks failed, inserting them one at a time", batch.size(), e);
+        }
+        List<Task> failed = new ArrayList<>();
+        for (Task task : batch) {
+            try {
+                afterInsert(insert(List.of(task)));
+            } catch (DataAccessException e) {
+                if (isTransient(e) || !deadLetter(task, e)) {
+                    failed.add(task);
+                }
+            }
+        }
+        return failed;
+    }
+
+    private static boolean isTransient(DataAccessException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    /**
+     * Appends a task the database rejected to the dead-letter file, forced to disk before the task leaves the log.
+     *
+     * @return whether the task was written
+     */
+    private boolean deadLetter(Task task, DataAccessException cause) {
+        try (FileChannel channel = FileChannel.open(properties.deadLetterPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer line = ByteBuffer.wrap(serialize(task));
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            log.error("Could not move task {} to the write-behind dead-letter file, retrying", task.getId(), e);
+            return false;
+        }
+        log.error("Task {} was rejected by the database, moved it to {}", task.getId(), properties.deadLetterPath(),
+                cause);
+        return true;
+    }
+
+    private List<Task> insert(List<Task> batch) {
+        try {
+            insertRows(batch);
+            return batch;
+        } catch (DuplicateKeyException e) {
+            // A previous attempt may have been committed without being acknowledged
+            return insertMissing(batch);
+        }
+    }
+
+    private List<Task> insertMissing(List<Task> batch) {
+        String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+        Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "select id from task where id in (" + placeholders + ")",
+                Long.class,
+                batch.stream().map(Task::getId).toArray()));
+        List<Task> missing = batch.stream().filter(task -> !existing.contains(task.getId())).toList();
+        if (!missing.isEmpty()) {
+            insertRows(missing);
+        }
+        return missing;
+    }
+
+    /**
+     * Inserts the tasks with a single multi-row INSERT statement.
+     */
+    private void insertRows(List<Task> tasks) {
+        String sql = INSERT + String.join(", ", Collections.nCopies(tasks.size(), INSERT_ROW));
+        Object[] arguments = new Object[tasks.size() * 7];
+        int i = 0;
+        for (Task task : tasks) {
+            arguments[i++] = task.getId();
+            arguments[i++] = task.getTitle();
+            arguments[i++] = task.getDueDate();
+            arguments[i++] = task.getPriority();
+            arguments[i++] = task.getStatus() == null ? null : task.getStatus().ordinal();
+            arguments[i++] = task.getVersion();
+            arguments[i++] = task.getLastModified();
+        }
+        jdbcTemplate.update(sql, arguments);
+    }
+
+    private void afterInsert(List<Task> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        // The INSERTs bypass Hibernate, which would otherwise invalidate the cached listing results itself
+        sessionFactory.getCache().evictQueryRegions();
+        for (Task task : inserted) {
+            for (TaskCommitListener listener : listeners) {
+                listener.onInsert(task);
+            }
+        }
+    }
+
+    private synchronized void truncateLogIfDrained() {
+        if (!queue.isEmpty() || unqueued > 0) {
+            return;
+        }
+        try {
+            logChannel.truncate(0);
+        } catch (IOException e) {
+            // Replaying the whole log again is harmless, inserted tasks are skipped
+            log.warn("Could not truncate the write-behind log", e);
+        }
+    }
+
+    private Long nextId(Task task) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) idGenerator.generate((SharedSessionContractImplementor) session, task, null,
+                    EventType.INSERT);
+        }
+    }
+
+    private byte[] serialize(Task task) {
+        try {
+            return (objectMapper.writeValueAsString(task) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
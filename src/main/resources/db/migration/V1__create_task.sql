@@ -0,0 +1,10 @@
+create sequence task_seq start with 1 increment by 50;
+
+create table task (
+    id bigint not null,
+    title varchar(255),
+    due_date timestamp(6),
+    priority integer check (priority between 1 and 5),
+    status tinyint check (status between 0 and 2),
+    primary key (id)
+);
@@ -0,0 +1,8 @@
+-- Outdated filter (status = NOT_DONE and due_date < now), ordered by due date within a status
+create index idx_task_status_due_date on task (status, due_date);
+
+-- Priority filter in the default id order, and keyset pages sorted by priority
+create index idx_task_priority_id on task (priority, id);
+
+-- Sorting and keyset pages by due date
+create index idx_task_due_date_id on task (due_date, id);
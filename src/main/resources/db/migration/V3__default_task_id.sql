@@ -0,0 +1,3 @@
+-- Lets writers other than Hibernate (R2DBC, plain SQL) insert tasks without an id.
+-- Each such insert takes a whole sequence value, which Hibernate's pooled id allocation never hands out itself.
+alter table task alter column id set default next value for task_seq;
@@ -0,0 +1,4 @@
+-- Optimistic locking version and modification time, exposed as ETag and Last-Modified
+alter table task add column version bigint default 0 not null;
+alter table task add column last_modified timestamp(6);
+update task set last_modified = current_timestamp;
@@ -0,0 +1,160 @@
+package com.example.todo.reactive;
+
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+class ReactiveTaskApiTests {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveTaskRepository repository;
+
+    private List<Task> list(String query) {
+        return webTestClient.get().uri("/tasks" + query)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Task.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    void testFilterPriority() {
+        List<Task> tasks = list("?priority=3");
+        Assertions.assertThat(tasks).isNotEmpty()
+                .allMatch(task -> task.getPriority() == 3);
+    }
+
+    @Test
+    void testOverdueTasksSortedByDueDate() {
+        List<Task> tasks = list("?outdatedOnly=true&sortBy=dueDate&orderBy=desc");
+        Assertions.assertThat(tasks).isNotEmpty()
+                .allMatch(task -> task.getDueDate().before(new Date()) && task.getStatus() == TaskStatus.NOT_DONE)
+                .isSortedAccordingTo(Comparator.comparing(Task::getDueDate).reversed());
+    }
+
+    @Test
+    void testStreamNdjson() {
+        List<Task> tasks = webTestClient.get().uri("/tasks?sortBy=priority")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Task.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+        Assertions.assertThat(tasks).isNotEmpty()
+                .isSortedAccordingTo(Comparator.comparingInt(Task::getPriority));
+    }
+
+    @Test
+    void testGetByIdTaskNotFound() {
+        webTestClient.get().uri("/tasks/200")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errors").isEqualTo("Task with id 200 does not exist");
+    }
+
+    @Test
+    void testPostAndPatch() {
+        Task created = webTestClient.post().uri("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Reactive task", "priority", 2))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Task.class)
+                .returnResult()
+                .getResponseBody();
+        Assertions.assertThat(created.getId()).isNotNull();
+        Assertions.assertThat(created.getStatus()).isEqualTo(TaskStatus.NOT_DONE);
+
+        Task updated = webTestClient.patch().uri("/tasks/" + created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("status", "done"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Task.class)
+                .returnResult()
+                .getResponseBody();
+        Assertions.assertThat(updated.getStatus()).isEqualTo(TaskStatus.DONE);
+        Assertions.assertThat(updated.getTitle()).isEqualTo("Reactive task");
+
+        Task found = webTestClient.get().uri("/tasks/" + created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Task.class)
+                .returnResult()
+                .getResponseBody();
+        Assertions.assertThat(found.getStatus()).isEqualTo(TaskStatus.DONE);
+    }
+
+    @Test
+    void testConcurrentUpdateDetected() {
+        Task created = webTestClient.post().uri("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "Contended task", "priority", 2))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Task.class)
+                .returnResult()
+                .getResponseBody();
+        Task stale = repository.findById(created.getId()).block();
+
+        webTestClient.patch().uri("/tasks/" + created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "First update"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(stale.getVersion() + 1);
+
+        // A write based on the version read before the update does not overwrite it
+        stale.setTitle("Lost update");
+        Assertions.assertThatThrownBy(() -> repository.save(stale).block())
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        Task found = repository.findById(created.getId()).block();
+        Assertions.assertThat(found.getTitle()).isEqualTo("First update");
+    }
+
+    @Test
+    void testPostIdNotAllowed() {
+        webTestClient.post().uri("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("id", 1, "title", "New task", "priority", 1))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors").isEqualTo("id is not allowed in this request");
+    }
+
+    @Test
+    void testPostInvalidPriority() {
+        webTestClient.post().uri("/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", "New task", "priority", 100))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors[0]").isEqualTo("Priority must be between 1 and 5");
+    }
+}
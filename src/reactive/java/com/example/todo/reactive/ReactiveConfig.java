@@ -0,0 +1,136 @@
+package com.example.todo.reactive;
+
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Version;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mapping.model.Property;
+import org.springframework.data.mapping.model.SimpleTypeHolder;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.H2Dialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.data.relational.core.mapping.BasicRelationalPersistentProperty;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Configuration of the reactive stack, active when the application runs as a reactive web application
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableR2dbcRepositories
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+    /**
+     * Spring Boot skips the JDBC data source once R2DBC is configured. It is still needed here for the
+     * migrations and for the components built on JPA; request handling only uses R2DBC.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Maps {@link TaskStatus} to the ordinal column used by JPA, R2DBC would store the name otherwise.
+     * {@link Date}s are stored as local timestamps in the JVM time zone, like Hibernate does.
+     */
+    @Bean
+    R2dbcCustomConversions r2dbcCustomConversions() {
+        return R2dbcCustomConversions.of(H2Dialect.INSTANCE, List.of(
+                new TaskStatusWritingConverter(),
+                new TaskStatusReadingConverter(),
+                new DateWritingConverter(),
+                new DateReadingConverter()));
+    }
+
+    /**
+     * Spring Data JPA rejects Spring Data's own {@code @Version} on an entity, so the R2DBC mapping takes the JPA
+     * annotation as the version property instead. Reactive updates are then checked against the version and
+     * increment it, as Hibernate does.
+     */
+    @Bean
+    R2dbcMappingContext r2dbcMappingContext(R2dbcCustomConversions r2dbcCustomConversions) {
+        R2dbcMappingContext mappingContext = new JpaVersionMappingContext();
+        mappingContext.setSimpleTypeHolder(r2dbcCustomConversions.getSimpleTypeHolder());
+        return mappingContext;
+    }
+
+    /**
+     * Maintains the modification time that Hibernate maintains on the JPA side. The version is checked and
+     * incremented by Spring Data itself.
+     */
+    @Bean
+    BeforeConvertCallback<Task> taskLastModifiedCallback() {
+        return (task, table) -> {
+            task.setLastModified(new Date());
+            return Mono.just(task);
+        };
+    }
+
+    static class JpaVersionMappingContext extends R2dbcMappingContext {
+        @Override
+        protected RelationalPersistentProperty createPersistentProperty(Property property,
+                                                                        RelationalPersistentEntity<?> owner,
+                                                                        SimpleTypeHolder simpleTypeHolder) {
+            BasicRelationalPersistentProperty persistentProperty = new BasicRelationalPersistentProperty(property,
+                    owner, simpleTypeHolder, getNamingStrategy()) {
+                @Override
+                public boolean isVersionProperty() {
+                    return super.isVersionProperty() || isAnnotationPresent(Version.class);
+                }
+            };
+            applyDefaults(persistentProperty);
+            return persistentProperty;
+        }
+    }
+
+    @WritingConverter
+    static class TaskStatusWritingConverter implements Converter<TaskStatus, Integer> {
+        @Override
+        public Integer convert(TaskStatus status) {
+            return status.ordinal();
+        }
+    }
+
+    @ReadingConverter
+    static class TaskStatusReadingConverter implements Converter<Number, TaskStatus> {
+        @Override
+        public TaskStatus convert(Number ordinal) {
+            return TaskStatus.values()[ordinal.intValue()];
+        }
+    }
+
+    @WritingConverter
+    static class DateWritingConverter implements Converter<Date, LocalDateTime> {
+        @Override
+        public LocalDateTime convert(Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        }
+    }
+
+    @ReadingConverter
+    static class DateReadingConverter implements Converter<LocalDateTime, Date> {
+        @Override
+        public Date convert(LocalDateTime dateTime) {
+            return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.todo.reactive;
+
+import com.example.todo.entity.Task;
+import com.example.todo.exceptions.IdNotAllowedException;
+import com.example.todo.exceptions.PriorityRequiredException;
+import com.example.todo.exceptions.TaskModifiedException;
+import com.example.todo.exceptions.TaskNotFoundException;
+import com.example.todo.repository.TaskSort;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Non-blocking variant of the task API, with the same contract as the servlet controller's core endpoints.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskController {
+    private final ReactiveTaskRepository repository;
+
+    public ReactiveTaskController(ReactiveTaskRepository repository) {
+        this.repository = repository;
+    }
+
+    @PostMapping("/tasks")
+    public Mono<ResponseEntity<Task>> addTask(@Valid @RequestBody Task newTask) {
+        if (newTask.getId() != null) {
+            return Mono.error(new IdNotAllowedException());
+        }
+        if (newTask.getPriority() == null) {
+            return Mono.error(new PriorityRequiredException());
+        }
+        return repository.save(newTask)
+                .map(task -> new ResponseEntity<>(task, HttpStatus.CREATED));
+    }
+
+    /**
+     * Lists tasks as a JSON array, or one task per line with {@code Accept: application/x-ndjson}.
+     * Either way rows are streamed from the database as the client consumes them.
+     */
+    @GetMapping(value = "/tasks", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Task> all(@RequestParam(defaultValue = "id") Optional<String> sortBy,
+                          @RequestParam(defaultValue = "asc") Optional<String> orderBy,
+                          @RequestParam(defaultValue = "false") Optional<Boolean> outdatedOnly,
+                          @RequestParam Optional<Integer> priority) {
+        return repository.findAll(TaskCriteria.filter(outdatedOnly, priority), TaskSort.of(sortBy, orderBy));
+    }
+
+    @GetMapping("/tasks/{id}")
+    public Mono<Task> findById(@PathVariable Long id) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException(id)));
+    }
+
+    /**
+     * Concurrent updates of the task are detected by its version and answered as in the servlet stack.
+     */
+    @PatchMapping("/tasks/{id}")
+    public Mono<Task> updateTask(@Valid @RequestBody Task updatedTask, @PathVariable Long id) {
+        if (updatedTask.getId() != null) {
+            return Mono.error(new IdNotAllowedException());
+        }
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException(id)))
+                .flatMap(existingTask -> {
+                    existingTask.updateTask(updatedTask);
+                    return repository.save(existingTask);
+                })
+                .onErrorMap(OptimisticLockingFailureException.class, e -> new TaskModifiedException(id));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.todo.reactive;
+
+import com.example.todo.entity.Task;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.relational.core.query.Criteria;
+import reactor.core.publisher.Flux;
+
+/**
+ * Repository fragment for dynamically filtered task listings
+ */
+public interface ReactiveTaskFilterRepository {
+    /**
+     * Streams the matching tasks as the database returns them, honouring downstream demand.
+     */
+    Flux<Task> findAll(Criteria criteria, Sort sort);
+}
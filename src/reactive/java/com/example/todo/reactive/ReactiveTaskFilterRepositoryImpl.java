@@ -0,0 +1,23 @@
+package com.example.todo.reactive;
+
+import com.example.todo.entity.Task;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+
+class ReactiveTaskFilterRepositoryImpl implements ReactiveTaskFilterRepository {
+    private final R2dbcEntityTemplate template;
+
+    ReactiveTaskFilterRepositoryImpl(R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    public Flux<Task> findAll(Criteria criteria, Sort sort) {
+        return template.select(Task.class)
+                .matching(Query.query(criteria).sort(sort))
+                .all();
+    }
+}
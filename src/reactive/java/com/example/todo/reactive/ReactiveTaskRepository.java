@@ -0,0 +1,11 @@
+package com.example.todo.reactive;
+
+import com.example.todo.entity.Task;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+/**
+ * R2DBC repository for {@link Task}s. Extends {@link R2dbcRepository}, a {@code ReactiveCrudRepository}, so that
+ * Spring Data assigns it to R2DBC although {@link Task} is also a JPA entity.
+ */
+public interface ReactiveTaskRepository extends R2dbcRepository<Task, Long>, ReactiveTaskFilterRepository {
+}
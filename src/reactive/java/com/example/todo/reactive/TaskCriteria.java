@@ -0,0 +1,28 @@
+package com.example.todo.reactive;
+
+import com.example.todo.entity.TaskStatus;
+import com.example.todo.repository.TaskSpecifications;
+import org.springframework.data.relational.core.query.Criteria;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * R2DBC counterpart of {@link TaskSpecifications#filter}
+ */
+public class TaskCriteria {
+    private TaskCriteria() {
+    }
+
+    public static Criteria filter(Optional<Boolean> outdatedOnly, Optional<Integer> priority) {
+        Criteria criteria = Criteria.empty();
+        if (outdatedOnly.isPresent() && outdatedOnly.get()) {
+            criteria = criteria.and("status").is(TaskStatus.NOT_DONE)
+                    .and("dueDate").lessThan(new Date());
+        }
+        if (priority.isPresent()) {
+            criteria = criteria.and("priority").is(priority.get());
+        }
+        return criteria;
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.todo;
 
+import com.example.todo.dto.TaskStats;
 import com.example.todo.entity.Task;
 import com.example.todo.entity.TaskStatus;
+import com.example.todo.service.TaskCounters;
+import com.example.todo.service.TaskDueDates;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -18,19 +26,35 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
-@SpringBootTest
+// All requests come from the same client, the limits are covered by TaskRequestLimiterTests
+@SpringBootTest(properties = "todo.limits.rate.enabled=false")
 @AutoConfigureMockMvc
 class TodoApplicationTests {
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory());
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskDueDates taskDueDates;
+
+    @Autowired
+    private TaskCounters taskCounters;
+
     // Test helper methods
     private List<Task> convertResponseToTasks(String response) throws JsonProcessingException {
         return MAPPER.readValue(response, new TypeReference<>() {
@@ -150,6 +174,376 @@ class TodoApplicationTests {
         });
     }
 
+    private List<Task> walkKeysetPages(String query, int size) throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/tasks?" + query + "&size=" + size + (cursor == null ? "" : "&after=" + cursor);
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(url))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn();
+            List<Task> page = convertResponseToTasks(result.getResponse().getContentAsString());
+            assert page.size() <= size;
+            tasks.addAll(page);
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+        } while (cursor != null);
+        return tasks;
+    }
+
+    @Test
+    void testOffsetPaging() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks?page=0&size=2"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists("X-Total-Count"))
+                .andExpect(MockMvcResultMatchers.header().exists("X-Next-Cursor"))
+                .andReturn();
+        List<Task> tasks = convertResponseToTasks(result.getResponse().getContentAsString());
+        Assertions.assertThat(tasks).hasSize(2);
+        Assertions.assertThat(tasks).isSortedAccordingTo(Comparator.comparing(Task::getId));
+    }
+
+    @Test
+    void testKeysetPagingReturnsEveryTaskOnce() throws Exception {
+        List<Task> unpaged = convertResponseToTasks(mockMvc.perform(MockMvcRequestBuilders.get("/tasks"))
+                .andReturn().getResponse().getContentAsString());
+        for (String order : List.of("asc", "desc")) {
+            List<Task> paged = walkKeysetPages("sortBy=dueDate&orderBy=" + order, 2);
+            Assertions.assertThat(paged).extracting(Task::getId)
+                    .doesNotHaveDuplicates()
+                    .containsExactlyInAnyOrderElementsOf(unpaged.stream().map(Task::getId).toList());
+            Comparator<Task> byDueDate = Comparator.comparing(Task::getDueDate,
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            Assertions.assertThat(paged)
+                    .isSortedAccordingTo(order.equals("asc") ? byDueDate : byDueDate.reversed());
+        }
+    }
+
+    @Test
+    void testKeysetPagingWithFilter() throws Exception {
+        List<Task> paged = walkKeysetPages("sortBy=priority&orderBy=desc&priority=3", 1);
+        assert !paged.isEmpty();
+        paged.forEach(task -> {
+            assert task.getPriority() == 3;
+        });
+        Assertions.assertThat(paged).extracting(Task::getId)
+                .doesNotHaveDuplicates()
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    void testListFields() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks")
+                        .param("fields", "id,title,status")
+                        .param("sortBy", "priority"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        JsonNode rows = MAPPER.readTree(result.getResponse().getContentAsString());
+        List<Task> tasks = convertResponseToTasks(mockMvc.perform(MockMvcRequestBuilders.get("/tasks")
+                        .param("sortBy", "priority"))
+                .andReturn().getResponse().getContentAsString());
+        assert rows.size() == tasks.size();
+        for (int i = 0; i < rows.size(); i++) {
+            JsonNode row = rows.get(i);
+            Assertions.assertThat(row.fieldNames()).toIterable().containsExactly("id", "title", "status");
+            assert row.get("id").asLong() == tasks.get(i).getId();
+            assert row.get("title").asText().equals(tasks.get(i).getTitle());
+            assert row.get("status").asText().equals(tasks.get(i).getStatus().name());
+        }
+    }
+
+    @Test
+    void testListFieldsKeysetPaging() throws Exception {
+        MvcResult first = mockMvc.perform(MockMvcRequestBuilders.get("/tasks")
+                        .param("fields", "title")
+                        .param("sortBy", "dueDate")
+                        .param("size", "2"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists("X-Next-Cursor"))
+                .andReturn();
+        MvcResult second = mockMvc.perform(MockMvcRequestBuilders.get("/tasks")
+                        .param("fields", "title")
+                        .param("sortBy", "dueDate")
+                        .param("size", "2")
+                        .param("after", first.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        List<Task> expected = convertResponseToTasks(mockMvc.perform(MockMvcRequestBuilders.get("/tasks")
+                        .param("sortBy", "dueDate")
+                        .param("size", "4"))
+                .andReturn().getResponse().getContentAsString());
+        List<String> titles = new ArrayList<>();
+        MAPPER.readTree(first.getResponse().getContentAsString()).forEach(row -> titles.add(row.get("title").asText()));
+        MAPPER.readTree(second.getResponse().getContentAsString()).forEach(row -> titles.add(row.get("title").asText()));
+        Assertions.assertThat(titles).containsExactlyElementsOf(expected.stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    void testListUnknownField() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("fields", "id,owner"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors").value("owner is not a field of a task"));
+    }
+
+    @Test
+    void testInvalidCursor() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks?after=not-a-cursor"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andReturn();
+    }
+
+    @Test
+    void testCursorForDifferentSort() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks?size=1&sortBy=priority"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        String cursor = result.getResponse().getHeader("X-Next-Cursor");
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks?size=1&sortBy=dueDate&after=" + cursor))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andReturn();
+    }
+
+    @Test
+    void testExportNdjson() throws Exception {
+        List<Task> expected = convertResponseToTasks(mockMvc.perform(MockMvcRequestBuilders.get("/tasks?priority=3"))
+                .andReturn().getResponse().getContentAsString());
+        MvcResult asyncResult = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/export?priority=3"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+                .andReturn();
+        String body = result.getResponse().getContentAsString();
+        assert body.endsWith("\n");
+        List<Task> exported = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            exported.add(getSingleTaskFromResponse(line));
+        }
+        Assertions.assertThat(exported).isEqualTo(expected);
+    }
+
+    private Long createTask(String title, int priority) throws Exception {
+        ObjectNode requestNode = MAPPER.createObjectNode();
+        requestNode.put("title", title);
+        requestNode.put("priority", priority);
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn();
+        return getSingleTaskFromResponse(result.getResponse().getContentAsString()).getId();
+    }
+
+    @Test
+    void testSearchPrefixAndRanking() throws Exception {
+        Long prefixOnly = createTask("Quokkaland travel plans", 3);
+        Long exact = createTask("Feed the quokka", 3);
+        createTask("Feed the cat", 3);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/search").param("q", "Quokka"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        List<Long> ids = convertResponseToTasks(result.getResponse().getContentAsString()).stream()
+                .map(Task::getId)
+                .toList();
+        Assertions.assertThat(ids).containsExactly(exact, prefixOnly);
+
+        result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/search").param("q", "feed quok"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        ids = convertResponseToTasks(result.getResponse().getContentAsString()).stream().map(Task::getId).toList();
+        Assertions.assertThat(ids).containsExactly(exact);
+    }
+
+    @Test
+    void testSearchFollowsUpdatesAndFilters() throws Exception {
+        Long low = createTask("Renew wombat license", 1);
+        Long high = createTask("Renew passport", 5);
+        ObjectNode updateNode = MAPPER.createObjectNode();
+        updateNode.put("title", "Renew wombat passport");
+        mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/" + high)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/search").param("q", "wombat"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        List<Long> ids = convertResponseToTasks(result.getResponse().getContentAsString()).stream()
+                .map(Task::getId)
+                .toList();
+        Assertions.assertThat(ids).containsExactlyInAnyOrder(low, high);
+
+        result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/search")
+                        .param("q", "wombat")
+                        .param("priority", "5"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        ids = convertResponseToTasks(result.getResponse().getContentAsString()).stream().map(Task::getId).toList();
+        Assertions.assertThat(ids).containsExactly(high);
+    }
+
+    @Test
+    void testStatsFollowWrites() throws Exception {
+        MvcResult before = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/stats"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        JsonNode statsBefore = MAPPER.readTree(before.getResponse().getContentAsString());
+
+        ObjectNode requestNode = MAPPER.createObjectNode();
+        requestNode.put("title", "Counted task");
+        requestNode.put("priority", 2);
+        requestNode.put("dueDate", "2000-01-01T00:00:00.000+00:00");
+        MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn();
+        Long id = getSingleTaskFromResponse(created.getResponse().getContentAsString()).getId();
+        ObjectNode updateNode = MAPPER.createObjectNode();
+        updateNode.put("priority", 1);
+        mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        MvcResult after = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/stats"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        JsonNode statsAfter = MAPPER.readTree(after.getResponse().getContentAsString());
+        assert statsAfter.get("total").asLong() == statsBefore.get("total").asLong() + 1;
+        assert statsAfter.get("overdue").asLong() == statsBefore.get("overdue").asLong() + 1;
+        assert statsAfter.get("byStatus").get("NOT_DONE").asLong()
+                == statsBefore.get("byStatus").get("NOT_DONE").asLong() + 1;
+        assert statsAfter.get("byPriority").get("1").asLong() == statsBefore.get("byPriority").get("1").asLong() + 1;
+        assert statsAfter.get("byPriority").get("2").asLong() == statsBefore.get("byPriority").get("2").asLong();
+    }
+
+    @Test
+    void testTaskBecomesOverdueWhenDue() throws Exception {
+        ObjectNode requestNode = MAPPER.createObjectNode();
+        requestNode.put("title", "Due soon");
+        requestNode.put("priority", 3);
+        requestNode.put("dueDate", Instant.now().plusMillis(500).toString());
+        MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn();
+        Long id = getSingleTaskFromResponse(created.getResponse().getContentAsString()).getId();
+        assert !taskDueDates.isOverdue(id);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!taskDueDates.isOverdue(id) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assert taskDueDates.isOverdue(id);
+
+        ObjectNode updateNode = MAPPER.createObjectNode();
+        updateNode.put("status", "done");
+        mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assert !taskDueDates.isOverdue(id);
+    }
+
+    @Test
+    void testPatchDueDateInThePastIsOverdue() throws Exception {
+        ObjectNode updateNode = MAPPER.createObjectNode();
+        updateNode.put("dueDate", "2000-01-01T00:00:00.000+00:00");
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Moved back\", \"priority\": 2}"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn();
+        Long id = getSingleTaskFromResponse(result.getResponse().getContentAsString()).getId();
+        assert !taskDueDates.isOverdue(id);
+        mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assert taskDueDates.isOverdue(id);
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    void testChangeFeed() throws Exception {
+        MvcResult feed = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/changes"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        ObjectNode requestNode = MAPPER.createObjectNode();
+        requestNode.put("title", "Streamed task");
+        requestNode.put("priority", 1);
+        MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn();
+        Long id = getSingleTaskFromResponse(created.getResponse().getContentAsString()).getId();
+        ObjectNode updateNode = MAPPER.createObjectNode();
+        updateNode.put("title", "Streamed task, updated");
+        mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        String content = awaitContent(feed, "Streamed task, updated");
+        Assertions.assertThat(content)
+                .contains("event:created", "\"title\":\"Streamed task\"", "event:updated", "Streamed task, updated");
+
+        // Resuming after the creation replays the update only
+        List<String> lines = content.lines().toList();
+        int createdLine = IntStream.range(0, lines.size())
+                .filter(line -> lines.get(line).startsWith("data:")
+                        && lines.get(line).contains("\"title\":\"Streamed task\""))
+                .findFirst()
+                .orElseThrow();
+        String createdId = lines.subList(0, createdLine).reversed().stream()
+                .filter(line -> line.startsWith("id:"))
+                .findFirst()
+                .orElseThrow()
+                .substring("id:".length());
+        MvcResult resumed = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/changes")
+                        .header("Last-Event-ID", createdId))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        String replayed = awaitContent(resumed, "Streamed task, updated");
+        Assertions.assertThat(replayed).contains("event:updated").doesNotContain("event:created");
+    }
+
+    @Test
+    void testChangeFeedResetsUnknownEventId() throws Exception {
+        // Sequence numbers without the epoch of this process may come from before a restart
+        for (String lastEventId : List.of("1", "0-1", "unknown")) {
+            MvcResult feed = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/changes")
+                            .header("Last-Event-ID", lastEventId))
+                    .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                    .andReturn();
+            Assertions.assertThat(awaitContent(feed, "event:reset")).contains("event:reset");
+        }
+    }
+
     @Test
     void testGetByIdOk() throws Exception {
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1"))
@@ -160,6 +554,224 @@ class TodoApplicationTests {
         assert task.getId() == 1L;
     }
 
+    @Test
+    void testGetByIdNotModified() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assert eTag != null && !eTag.startsWith("W/");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    void testGetAllNotModified() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assert eTag != null;
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "2")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    private double listCacheHits() {
+        return meterRegistry.get("cache.gets").tags("cache", "taskLists", "result", "hit").functionCounter().count();
+    }
+
+    @Test
+    void testGetAllServedFromCacheUntilMatchingWrite() throws Exception {
+        MvcResult first = mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        double hits = listCacheHits();
+        MvcResult cached = mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "5"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG,
+                        first.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andReturn();
+        assert listCacheHits() == hits + 1;
+        assert cached.getResponse().getContentAsString().equals(first.getResponse().getContentAsString());
+
+        // A task that matches neither before nor after the write keeps the entry
+        MvcResult other = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Unrelated\", \"priority\": 3}"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn();
+        Long otherId = getSingleTaskFromResponse(other.getResponse().getContentAsString()).getId();
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assert listCacheHits() == hits + 2;
+
+        // Moving it into the filter drops the entry
+        ObjectNode updateNode = MAPPER.createObjectNode();
+        updateNode.put("priority", 5);
+        mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/" + otherId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        MvcResult fresh = mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        assert listCacheHits() == hits + 2;
+        List<Long> ids = convertResponseToTasks(fresh.getResponse().getContentAsString()).stream()
+                .map(Task::getId).toList();
+        Assertions.assertThat(ids).contains(otherId);
+    }
+
+    @Test
+    void testGetAllCacheConvertsOutdatedOnlyLikeTheController() throws Exception {
+        ObjectNode requestNode = MAPPER.createObjectNode();
+        requestNode.put("title", "Due next week");
+        requestNode.put("priority", 2);
+        requestNode.put("dueDate", Instant.now().plusSeconds(7 * 24 * 3600).toString());
+        mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+        MvcResult all = mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("sortBy", "title"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        Assertions.assertThat(all.getResponse().getContentAsString()).contains("Due next week");
+        MvcResult outdated = mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("sortBy", "title")
+                        .param("outdatedOnly", "1"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        Assertions.assertThat(outdated.getResponse().getContentAsString()).doesNotContain("Due next week");
+
+        // The same filter spelled another way is the same cache entry
+        double hits = listCacheHits();
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("sortBy", "title").param("outdatedOnly", "TRUE"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(outdated.getResponse().getContentAsString()));
+        assert listCacheHits() == hits + 1;
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("sortBy", "title").param("outdatedOnly", "off"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(all.getResponse().getContentAsString()));
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("outdatedOnly", "maybe"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void testGetAllCacheSkipsPrioritiesOutOfRange() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "123456"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        double hits = listCacheHits();
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "123456"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$").isEmpty());
+        assert listCacheHits() == hits;
+    }
+
+    @Test
+    void testGetAllCacheKeepsEveryFieldsValue() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("fields", "id").param("fields", "title"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].title").exists());
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("fields", "id").param("fields", "status"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].title").doesNotExist());
+    }
+
+    @Test
+    void testGetAllCachedGzip() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\": \"" + "Compressible task title ".repeat(4) + i
+                                    + "\", \"priority\": 4}"))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+        }
+        MvcResult plain = mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "4")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        MvcResult compressed = mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "4")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        byte[] body = compressed.getResponse().getContentAsByteArray();
+        assert body.length < plain.getResponse().getContentAsByteArray().length;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assert new String(gzip.readAllBytes(), StandardCharsets.UTF_8)
+                    .equals(plain.getResponse().getContentAsString());
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("priority", "4"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(MockMvcResultMatchers.content().string(plain.getResponse().getContentAsString()));
+    }
+
+    @Test
+    void testGetByIdCbor() throws Exception {
+        MvcResult json = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        MvcResult cbor = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1").accept(MediaType.APPLICATION_CBOR))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        Task jsonTask = getSingleTaskFromResponse(json.getResponse().getContentAsString());
+        Task cborTask = CBOR_MAPPER.readValue(cbor.getResponse().getContentAsByteArray(), Task.class);
+        assert cborTask.equals(jsonTask);
+        assert cborTask.getStatus() == jsonTask.getStatus();
+        assert !cbor.getResponse().getHeader(HttpHeaders.ETAG).equals(json.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testGetByIdServedFromCache() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/2"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        double hitsBefore = meterRegistry.get("cache.gets").tags("cache", "tasks", "result", "hit")
+                .functionCounter().count();
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/2"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        double hitsAfter = meterRegistry.get("cache.gets").tags("cache", "tasks", "result", "hit")
+                .functionCounter().count();
+        assert hitsAfter == hitsBefore + 1;
+    }
+
+    @Test
+    void testGetByIdAfterPatchIsFresh() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/5"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        ObjectNode requestNode = MAPPER.createObjectNode();
+        requestNode.put("title", "No date, renamed");
+        mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/5")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/5"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        Task task = getSingleTaskFromResponse(result.getResponse().getContentAsString());
+        assert task.getTitle().equals("No date, renamed");
+    }
+
     @Test
     void testGetByIdTaskNotFound() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/tasks/200"))
@@ -188,6 +800,45 @@ class TodoApplicationTests {
                 .equals(Instant.parse(requestNode.get("dueDate").asText()));
     }
 
+    @Test
+    void testPostCborRoundTrip() throws Exception {
+        Date dueDate = new Date(1_700_000_000_123L);
+        ObjectNode requestNode = CBOR_MAPPER.createObjectNode();
+        requestNode.put("title", "Binary task");
+        requestNode.put("priority", 4);
+        requestNode.put("dueDate", dueDate.getTime());
+        requestNode.put("status", "canceled");
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(CBOR_MAPPER.writeValueAsBytes(requestNode)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        Task task = CBOR_MAPPER.readValue(result.getResponse().getContentAsByteArray(), Task.class);
+        assert task.getId() != null;
+        assert task.getTitle().equals("Binary task");
+        assert task.getPriority() == 4;
+        assert task.getDueDate().equals(dueDate);
+        assert task.getStatus() == TaskStatus.CANCELED;
+    }
+
+    @Test
+    void testPostCborInvalidPriority() throws Exception {
+        ObjectNode requestNode = CBOR_MAPPER.createObjectNode();
+        requestNode.put("title", "Binary task");
+        requestNode.put("priority", 500);
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(CBOR_MAPPER.writeValueAsBytes(requestNode)))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andReturn();
+        JsonNode body = CBOR_MAPPER.readTree(result.getResponse().getContentAsByteArray());
+        assert body.get("errors").get(0).asText().equals("Priority must be between 1 and 5");
+    }
+
     @Test
     void testPostIdNotAllowed() throws Exception {
         ObjectNode requestNode = MAPPER.createObjectNode();
@@ -230,6 +881,186 @@ class TodoApplicationTests {
                 .andReturn();
     }
 
+    @Test
+    void testBatchCreate() throws Exception {
+        ArrayNode requestNode = MAPPER.createArrayNode();
+        requestNode.addObject().put("title", "Batch task").put("priority", 2);
+        requestNode.addObject().put("id", 1).put("title", "Batch task with id").put("priority", 2);
+        requestNode.addObject().put("title", "Batch task without priority");
+        requestNode.addObject().put("title", "Batch task with invalid priority").put("priority", 100);
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        JsonNode results = MAPPER.readTree(result.getResponse().getContentAsString());
+        Assertions.assertThat(results).extracting(node -> node.get("status").asInt())
+                .containsExactly(201, 400, 400, 400);
+        long createdId = results.get(0).get("task").get("id").asLong();
+        MvcResult created = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/" + createdId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        assert getSingleTaskFromResponse(created.getResponse().getContentAsString()).getTitle().equals("Batch task");
+    }
+
+    @Test
+    void testBatchUpdate() throws Exception {
+        ArrayNode createNode = MAPPER.createArrayNode();
+        createNode.addObject().put("title", "Batch task to update").put("priority", 2);
+        MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(createNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        long createdId = MAPPER.readTree(created.getResponse().getContentAsString())
+                .get(0).get("task").get("id").asLong();
+
+        ArrayNode requestNode = MAPPER.createArrayNode();
+        requestNode.addObject().put("id", createdId).put("status", "done");
+        requestNode.addObject().put("id", 10000).put("title", "Missing task");
+        requestNode.addObject().put("title", "Task without id");
+        requestNode.addObject().put("id", createdId).put("priority", 500);
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        JsonNode results = MAPPER.readTree(result.getResponse().getContentAsString());
+        Assertions.assertThat(results).extracting(node -> node.get("status").asInt())
+                .containsExactly(200, 404, 400, 400);
+        MvcResult updated = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/" + createdId))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        Task updatedTask = getSingleTaskFromResponse(updated.getResponse().getContentAsString());
+        assert updatedTask.getStatus() == TaskStatus.DONE;
+        assert updatedTask.getPriority() == 2;
+    }
+
+    private Long createTask(String title, int priority, String dueDate) throws Exception {
+        ObjectNode requestNode = MAPPER.createObjectNode();
+        requestNode.put("title", title);
+        requestNode.put("priority", priority);
+        requestNode.put("dueDate", dueDate);
+        MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn();
+        return getSingleTaskFromResponse(created.getResponse().getContentAsString()).getId();
+    }
+
+    private JsonNode transition(ObjectNode requestNode) throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/tasks/transition")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        return MAPPER.readTree(result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void testTransitionByIds() throws Exception {
+        String tomorrow = Instant.now().plusSeconds(86400).toString();
+        Long first = createTask("Sprint task 1", 2, tomorrow);
+        Long second = createTask("Sprint task 2", 2, tomorrow);
+        Long untouched = createTask("Sprint task 3", 2, tomorrow);
+        MvcResult before = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/" + first))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        JsonNode taskBefore = MAPPER.readTree(before.getResponse().getContentAsString());
+        JsonNode statsBefore = MAPPER.readTree(mockMvc.perform(MockMvcRequestBuilders.get("/tasks/stats"))
+                .andReturn().getResponse().getContentAsString());
+
+        ObjectNode requestNode = MAPPER.createObjectNode();
+        requestNode.putArray("ids").add(first).add(second);
+        requestNode.put("status", "done");
+        assert transition(requestNode).get("updated").asInt() == 2;
+        // Tasks already in the target status are not counted again
+        assert transition(requestNode).get("updated").asInt() == 0;
+
+        MvcResult after = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/" + first))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        JsonNode taskAfter = MAPPER.readTree(after.getResponse().getContentAsString());
+        assert taskAfter.get("status").asText().equals("DONE");
+        assert taskAfter.get("version").asLong() == taskBefore.get("version").asLong() + 1;
+        MvcResult other = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/" + untouched))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        assert getSingleTaskFromResponse(other.getResponse().getContentAsString()).getStatus() == TaskStatus.NOT_DONE;
+
+        JsonNode statsAfter = MAPPER.readTree(mockMvc.perform(MockMvcRequestBuilders.get("/tasks/stats"))
+                .andReturn().getResponse().getContentAsString());
+        assert statsAfter.get("byStatus").get("DONE").asLong() == statsBefore.get("byStatus").get("DONE").asLong() + 2;
+    }
+
+    @Test
+    void testTransitionByFilter() throws Exception {
+        Long overdue = createTask("Forgotten task", 5, "2000-01-01T00:00:00.000+00:00");
+        Long upcoming = createTask("Upcoming task", 5, Instant.now().plusSeconds(86400).toString());
+        assert taskDueDates.isOverdue(overdue);
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks")
+                        .param("outdatedOnly", "true")
+                        .param("priority", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        ObjectNode requestNode = MAPPER.createObjectNode();
+        requestNode.put("outdatedOnly", true);
+        requestNode.put("priority", 5);
+        requestNode.put("status", "canceled");
+        assert transition(requestNode).get("updated").asInt() >= 1;
+        assert !taskDueDates.isOverdue(overdue);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/tasks")
+                        .param("outdatedOnly", "true")
+                        .param("priority", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        assert convertResponseToTasks(result.getResponse().getContentAsString()).isEmpty();
+        MvcResult kept = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/" + upcoming))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        assert getSingleTaskFromResponse(kept.getResponse().getContentAsString()).getStatus() == TaskStatus.NOT_DONE;
+
+        // The counts followed the moved tasks as a recount finds them
+        TaskStats followed = taskCounters.stats();
+        taskCounters.refresh();
+        Assertions.assertThat(taskCounters.stats()).isEqualTo(followed);
+    }
+
+    @Test
+    void testTransitionStatusRequired() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/tasks/transition")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1]}"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0]").value("Target status is required"));
+    }
+
+    @Test
+    void testTransitionWithoutSelectionRejected() throws Exception {
+        JsonNode statsBefore = MAPPER.readTree(mockMvc.perform(MockMvcRequestBuilders.get("/tasks/stats"))
+                .andReturn().getResponse().getContentAsString());
+        for (String body : new String[]{"{\"status\": \"DONE\"}", "{\"outdatedOnly\": false, \"status\": \"DONE\"}"}) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/tasks/transition")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andDo(MockMvcResultHandlers.print())
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.errors")
+                            .value("Transition requires ids, outdatedOnly or priority"));
+        }
+        JsonNode statsAfter = MAPPER.readTree(mockMvc.perform(MockMvcRequestBuilders.get("/tasks/stats"))
+                .andReturn().getResponse().getContentAsString());
+        assert statsAfter.get("byStatus").equals(statsBefore.get("byStatus"));
+    }
+
     @Test
     void testPatchOk() throws Exception {
         ObjectNode requestNode = MAPPER.createObjectNode();
@@ -277,6 +1108,45 @@ class TodoApplicationTests {
         assert updatedTask.getStatus() == TaskStatus.CANCELED;
     }
 
+    @Test
+    void testPatchIfMatch() throws Exception {
+        ObjectNode requestNode = MAPPER.createObjectNode();
+        requestNode.put("title", "Versioned Task");
+        requestNode.put("priority", 3);
+        MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestNode.toString()))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn();
+        Long id = getSingleTaskFromResponse(created.getResponse().getContentAsString()).getId();
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/tasks/" + id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        ObjectNode updateNode = MAPPER.createObjectNode();
+        updateNode.put("title", "Versioned Task, first update");
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/" + id)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateNode.toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        String newETag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assert newETag != null && !newETag.equals(eTag);
+
+        // A second writer still holding the first version loses
+        updateNode.put("title", "Versioned Task, stale update");
+        mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/" + id)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateNode.toString()))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/" + id))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, newETag))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("Versioned Task, first update"));
+    }
+
     @Test
     void testPatchTaskNotFound() throws Exception {
         ObjectNode requestNode = MAPPER.createObjectNode();
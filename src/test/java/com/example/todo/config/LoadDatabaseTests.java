@@ -0,0 +1,24 @@
+package com.example.todo.config;
+
+import com.example.todo.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "todo.limits.rate.enabled=false")
+class LoadDatabaseTests {
+    @Autowired
+    private CommandLineRunner initDatabase;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Test
+    void testSeedSkipsNonEmptyDatabase() throws Exception {
+        long count = repository.count();
+        assert count > 0;
+        initDatabase.run();
+        assert repository.count() == count;
+    }
+}
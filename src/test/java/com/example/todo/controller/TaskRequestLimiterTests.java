@@ -0,0 +1,107 @@
+package com.example.todo.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.concurrent.TimeUnit;
+
+@SpringBootTest(properties = {
+        "todo.limits.rate.capacity=20",
+        "todo.limits.rate.refill-per-second=1",
+        "todo.limits.rate.scan-cost=10",
+        "todo.limits.rate.client-header=X-Client-Id"
+})
+@AutoConfigureMockMvc
+class TaskRequestLimiterTests {
+    private static final String CLIENT_HEADER = "X-Client-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double rejected(String reason) {
+        return meterRegistry.get("tasks.requests.rejected").tag("reason", reason).counter().count();
+    }
+
+    @Test
+    void testUnfilteredListCostsMore() throws Exception {
+        // Distinct sorts, a listing served by TaskListCache does not reach the limiter
+        for (String sortBy : new String[]{"id", "title"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("sortBy", sortBy)
+                            .header(CLIENT_HEADER, "scanner"))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("sortBy", "priority")
+                        .header(CLIENT_HEADER, "scanner"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors").exists());
+
+        // Another client still has its whole bucket, and a lookup costs a single token
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1").header(CLIENT_HEADER, "reader"))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+        double rejectedBefore = rejected("rate");
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1").header(CLIENT_HEADER, "reader"))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"));
+        assert rejected("rate") == rejectedBefore + 1;
+    }
+
+    @Test
+    void testOutdatedOnlyBoundLikeTheControllerIsFiltered() throws Exception {
+        // Four listings at the scan cost would need twice the bucket
+        for (String sortBy : new String[]{"id", "title", "priority", "dueDate"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/tasks").param("sortBy", sortBy).param("outdatedOnly", "1")
+                            .header(CLIENT_HEADER, "filtered"))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+    }
+
+    @Test
+    void testConcurrencyLimitAdapts() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(2, 1, 4, TimeUnit.MILLISECONDS.toNanos(100));
+        assert limit.tryAcquire();
+        assert limit.tryAcquire();
+        assert !limit.tryAcquire();
+
+        // Fast requests at full use raise the limit, a slow one lowers it
+        limit.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        limit.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        Assertions.assertThat(limit.limit()).isEqualTo(2);
+        for (int i = 0; i < 20; i++) {
+            assert limit.tryAcquire();
+            assert limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+            limit.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        }
+        Assertions.assertThat(limit.limit()).isGreaterThan(2);
+        int raised = limit.limit();
+        assert limit.tryAcquire();
+        limit.release(TimeUnit.SECONDS.toNanos(1), false);
+        Assertions.assertThat(limit.limit()).isLessThan(raised);
+        assert limit.inFlight() == 0;
+    }
+
+    @Test
+    void testConcurrencyGaugesExported() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/1").header(CLIENT_HEADER, "gauges"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Assertions.assertThat(meterRegistry.get("tasks.requests.concurrency.limit").gauge().value())
+                .isBetween(10.0, 400.0);
+        Assertions.assertThat(meterRegistry.get("tasks.requests.in.flight").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.todo.mapped;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest(properties = {
+        "todo.mapped.path=target/tasks-test.db",
+        "todo.limits.rate.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("mapped")
+class MappedTaskApiTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MappedTaskRepository repository;
+
+    @Test
+    void testCreateUpdateAndList() throws Exception {
+        long before = repository.count();
+        mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Mapped task\", \"priority\": 5, \"dueDate\": \"2000-01-01\"}"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(before + 1));
+        mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/" + (before + 1))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Renamed mapped task\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("Renamed mapped task"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.priority").value(5));
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks")
+                        .param("priority", "5")
+                        .param("outdatedOnly", "true")
+                        .param("sortBy", "id")
+                        .param("orderBy", "desc"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].title").value("Renamed mapped task"));
+    }
+
+    @Test
+    void testMissingTask() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/" + Long.MAX_VALUE))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.todo.mapped;
+
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+class MappedTaskRepositoryTests {
+    // Small segments, so that the tests cross segment boundaries
+    private static final int SEGMENT_RECORDS = 4;
+
+    @TempDir
+    private Path directory;
+
+    private static Task task(String title, Integer priority, Date dueDate) {
+        Task task = new Task();
+        task.setTitle(title);
+        if (priority != null) {
+            task.setPriority(priority);
+        }
+        task.setDueDate(dueDate);
+        task.setStatus(TaskStatus.NOT_DONE);
+        return task;
+    }
+
+    private MappedTaskRepository open() throws IOException {
+        return new MappedTaskRepository(directory.resolve("tasks.db"), SEGMENT_RECORDS, false);
+    }
+
+    @Test
+    void testSaveFindAndUpdate() throws IOException {
+        try (MappedTaskRepository repository = open()) {
+            Task saved = repository.save(task("First", 2, new Date(1000)));
+            repository.save(task("Second", null, null));
+            Assertions.assertThat(saved.getId()).isEqualTo(1L);
+            Assertions.assertThat(saved.getVersion()).isZero();
+
+            Task found = repository.findById(1L).orElseThrow();
+            Assertions.assertThat(found.getTitle()).isEqualTo("First");
+            Assertions.assertThat(found.getPriority()).isEqualTo(2);
+            Assertions.assertThat(found.getDueDate()).isEqualTo(new Date(1000));
+            Assertions.assertThat(repository.findById(2L).orElseThrow().getPriority()).isNull();
+            Assertions.assertThat(repository.findById(3L)).isEmpty();
+
+            found.setStatus(TaskStatus.DONE);
+            Assertions.assertThat(repository.save(found).getVersion()).isEqualTo(1L);
+            Assertions.assertThat(repository.findById(1L).orElseThrow().getStatus()).isEqualTo(TaskStatus.DONE);
+            Assertions.assertThat(repository.count()).isEqualTo(2);
+
+            Task stale = task("Stale", 1, null);
+            stale.setId(1L);
+            stale.setVersion(0L);
+            Assertions.assertThatThrownBy(() -> repository.save(stale))
+                    .isInstanceOf(OptimisticLockingFailureException.class);
+        }
+    }
+
+    @Test
+    void testFindAllFiltersAndSortsLatestVersions() throws IOException {
+        try (MappedTaskRepository repository = open()) {
+            repository.save(task("b", 3, new Date(2000)));
+            repository.save(task("a", 1, null));
+            Task updated = repository.save(task("c", 3, new Date(1000)));
+            updated.setTitle("d");
+            repository.save(updated);
+
+            List<Task> byDueDate = repository.findAll(Sort.by("dueDate"));
+            Assertions.assertThat(byDueDate).extracting(Task::getTitle).containsExactly("a", "d", "b");
+            List<Task> priorityThree = repository.findAll(Optional.empty(), Optional.of(3),
+                    Sort.by(Sort.Direction.DESC, "title"));
+            Assertions.assertThat(priorityThree).extracting(Task::getTitle).containsExactly("d", "b");
+            List<Task> outdated = repository.findAll(Optional.of(true), Optional.empty(),
+                    Sort.by("id"));
+            Assertions.assertThat(outdated).extracting(Task::getId).containsExactly(1L, 3L);
+        }
+    }
+
+    @Test
+    void testReopenReplaysAndDropsTornRecord() throws IOException {
+        Path path = directory.resolve("tasks.db");
+        try (MappedTaskRepository repository = open()) {
+            for (int i = 0; i < 6; i++) {
+                repository.save(task("Task " + i, 1, null));
+            }
+        }
+        // Corrupt the last record, as if the machine stopped while it was written
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap("torn".getBytes()), 6L * MappedTaskRepository.RECORD_SIZE + 50);
+        }
+        try (MappedTaskRepository repository = open()) {
+            Assertions.assertThat(repository.count()).isEqualTo(5);
+            Assertions.assertThat(repository.findById(6L)).isEmpty();
+            Assertions.assertThat(repository.save(task("After recovery", 1, null)).getId()).isEqualTo(6L);
+        }
+        try (MappedTaskRepository repository = open()) {
+            Assertions.assertThat(repository.findById(6L).orElseThrow().getTitle()).isEqualTo("After recovery");
+        }
+    }
+
+    @Test
+    void testCompactionKeepsLatestVersions() throws IOException {
+        Path path = directory.resolve("tasks.db");
+        try (MappedTaskRepository repository = open()) {
+            Task task = repository.save(task("Version 0", 1, null));
+            for (int version = 1; version <= 9; version++) {
+                task.setTitle("Version " + version);
+                task = repository.save(task);
+            }
+            repository.save(task("Other", 2, null));
+            Assertions.assertThat(repository.garbageRatio()).isGreaterThan(0.8);
+
+            repository.compact();
+            Assertions.assertThat(repository.garbageRatio()).isZero();
+            Assertions.assertThat(Files.size(path)).isLessThanOrEqualTo(SEGMENT_RECORDS * MappedTaskRepository.RECORD_SIZE);
+            Assertions.assertThat(repository.findById(1L).orElseThrow().getTitle()).isEqualTo("Version 9");
+            Assertions.assertThat(repository.save(task("New", 1, null)).getId()).isEqualTo(3L);
+        }
+        try (MappedTaskRepository repository = open()) {
+            Assertions.assertThat(repository.findAll(Sort.by("id"))).extracting(Task::getTitle)
+                    .containsExactly("Version 9", "Other", "New");
+        }
+    }
+
+    @Test
+    void testIndexedListingsMatchFilteredSort() throws IOException {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        try (MappedTaskRepository repository = open()) {
+            for (int i = 0; i < 200; i++) {
+                Integer priority = random.nextInt(6) == 0 ? null : 1 + random.nextInt(5);
+                // Few distinct due dates, so that many tasks tie
+                Date dueDate = random.nextInt(5) == 0 ? null : new Date(now + (random.nextInt(20) - 10) * 60_000L);
+                Task task = repository.save(task("Task " + i, priority, dueDate));
+                if (random.nextBoolean()) {
+                    task.setStatus(TaskStatus.DONE);
+                    task.setPriority(1 + random.nextInt(5));
+                    repository.save(task);
+                }
+            }
+            assertIndexedListings(repository);
+        }
+        try (MappedTaskRepository repository = open()) {
+            assertIndexedListings(repository);
+        }
+    }
+
+    private static void assertIndexedListings(MappedTaskRepository repository) {
+        List<Task> all = repository.findAll(Sort.by("title"));
+        Assertions.assertThat(all).hasSize(200);
+        long now = System.currentTimeMillis();
+        for (String property : List.of("id", "priority", "dueDate")) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                for (Optional<Integer> priority : List.of(Optional.<Integer>empty(), Optional.of(3))) {
+                    for (boolean outdatedOnly : List.of(false, true)) {
+                        Comparator<Task> comparator = byProperty(property);
+                        if (direction.isDescending()) {
+                            comparator = comparator.reversed();
+                        }
+                        List<Long> expected = all.stream()
+                                .filter(task -> priority.isEmpty() || priority.get().equals(task.getPriority()))
+                                .filter(task -> !outdatedOnly || task.getStatus() == TaskStatus.NOT_DONE
+                                        && task.getDueDate() != null && task.getDueDate().getTime() < now)
+                                .sorted(comparator.thenComparing(Task::getId))
+                                .map(Task::getId)
+                                .toList();
+                        List<Task> tasks = repository.findAll(Optional.of(outdatedOnly), priority,
+                                Sort.by(direction, property));
+                        Assertions.assertThat(tasks).extracting(Task::getId).containsExactlyElementsOf(expected);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Comparator<Task> byProperty(String property) {
+        return switch (property) {
+            case "priority" -> Comparator.comparing(Task::getPriority, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "dueDate" -> Comparator.comparing(Task::getDueDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+            default -> Comparator.comparing(Task::getId);
+        };
+    }
+}
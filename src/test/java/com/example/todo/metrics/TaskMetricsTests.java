@@ -0,0 +1,53 @@
+package com.example.todo.metrics;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class TaskMetricsTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String scrape() throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    @Test
+    void testRequestLatencyTaggedByFilter() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks?priority=3&outdatedOnly=true&size=2"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        String metrics = scrape();
+        Assertions.assertThat(metrics)
+                .containsPattern("http_server_requests_seconds_bucket\\{.*filter=\"outdated\\+priority\".*paging=\"offset\".*uri=\"/tasks\"")
+                .containsPattern("http_server_requests_seconds\\{.*filter=\"outdated\\+priority\".*quantile=\"0.99\"");
+    }
+
+    @Test
+    void testRepositoryInvocationsTimed() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Assertions.assertThat(scrape())
+                .containsPattern("spring_data_repository_invocations_seconds_count\\{.*method=\"findAll\".*repository=\"TaskRepository\"");
+    }
+
+    @Test
+    void testRowsReturnedRecorded() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks?priority=4"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Assertions.assertThat(scrape())
+                .containsPattern("tasks_rows_returned_rows_count\\{endpoint=\"list\",filter=\"priority\"");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.todo.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest
+class TaskSchemaTests {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String explain(String query) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+    }
+
+    @Test
+    void testOutdatedFilterUsesStatusDueDateIndex() {
+        String plan = explain("SELECT * FROM task WHERE status = 0 AND due_date < CURRENT_TIMESTAMP ORDER BY due_date");
+        Assertions.assertThat(plan).containsIgnoringCase("idx_task_status_due_date");
+    }
+
+    @Test
+    void testOverdueCountUsesStatusDueDateIndex() {
+        String plan = explain("SELECT COUNT(id) FROM task WHERE status = 0 AND due_date < CURRENT_TIMESTAMP");
+        Assertions.assertThat(plan).containsIgnoringCase("idx_task_status_due_date");
+    }
+
+    @Test
+    void testPriorityFilterUsesPriorityIdIndex() {
+        String plan = explain("SELECT * FROM task WHERE priority = 3 ORDER BY id");
+        Assertions.assertThat(plan).containsIgnoringCase("idx_task_priority_id");
+    }
+
+    @Test
+    void testDueDateSortUsesDueDateIndex() {
+        String plan = explain("SELECT * FROM task ORDER BY due_date, id");
+        Assertions.assertThat(plan).containsIgnoringCase("idx_task_due_date_id");
+    }
+}
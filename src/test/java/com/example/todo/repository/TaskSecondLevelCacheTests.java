@@ -0,0 +1,110 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.Task;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@SpringBootTest(properties = "todo.limits.rate.enabled=false")
+@AutoConfigureMockMvc
+class TaskSecondLevelCacheTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private long statementsDuring(Runnable reads) {
+        Statistics statistics = sessionFactory.getStatistics();
+        long before = statistics.getPrepareStatementCount();
+        reads.run();
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    private List<Task> listByPriority(int priority) {
+        return repository.findAll(TaskSpecifications.filter(Optional.empty(), Optional.of(priority)),
+                PageRequest.of(0, 1000, Sort.by(Sort.Direction.DESC, "id"))).getContent();
+    }
+
+    @Test
+    void testRepeatedPageIsServedFromQueryCache() {
+        Specification<Task> filter = TaskSpecifications.filter(Optional.empty(), Optional.of(3));
+        PageRequest firstPage = PageRequest.of(0, 2, Sort.by("dueDate", "id"));
+        List<Page<Task>> results = new ArrayList<>();
+        Assertions.assertThat(statementsDuring(() -> results.add(repository.findAll(filter, firstPage))))
+                .isPositive();
+        Assertions.assertThat(statementsDuring(() -> results.add(repository.findAll(filter, firstPage))))
+                .isZero();
+        Assertions.assertThat(results.get(1).getContent()).isEqualTo(results.get(0).getContent()).isNotEmpty();
+        Assertions.assertThat(results.get(1).getTotalElements()).isEqualTo(results.get(0).getTotalElements());
+    }
+
+    @Test
+    void testUnpagedListingIsNotCached() {
+        Specification<Task> filter = TaskSpecifications.filter(Optional.empty(), Optional.of(3));
+        repository.findAll(filter, Sort.by("dueDate"));
+        Assertions.assertThat(statementsDuring(() -> repository.findAll(filter, Sort.by("dueDate")))).isPositive();
+    }
+
+    @Test
+    void testRepeatedFindByIdIsServedFromEntityCache() {
+        Task task = new Task();
+        task.setTitle("Cached task");
+        task.setPriority(2);
+        long id = repository.save(task).getId();
+        sessionFactory.getCache().evictAllRegions();
+
+        Assertions.assertThat(statementsDuring(() -> repository.findById(id))).isPositive();
+        Assertions.assertThat(statementsDuring(() -> repository.findById(id))).isZero();
+    }
+
+    @Test
+    void testUpdateInvalidatesCachedTaskAndListings() throws Exception {
+        Task task = new Task();
+        task.setTitle("Task before update");
+        task.setPriority(1);
+        long id = repository.save(task).getId();
+        Assertions.assertThat(repository.findById(id).orElseThrow().getTitle()).isEqualTo("Task before update");
+        Assertions.assertThat(listByPriority(1)).extracting(Task::getId).contains(id);
+        Assertions.assertThat(listByPriority(4)).extracting(Task::getId).doesNotContain(id);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/tasks/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Task after update\", \"priority\": 4}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Assertions.assertThat(repository.findById(id).orElseThrow().getTitle()).isEqualTo("Task after update");
+        Assertions.assertThat(listByPriority(1)).extracting(Task::getId).doesNotContain(id);
+        Assertions.assertThat(listByPriority(4)).filteredOn(listed -> listed.getId() == id)
+                .extracting(Task::getTitle).containsExactly("Task after update");
+    }
+}
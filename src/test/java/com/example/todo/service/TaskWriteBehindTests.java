@@ -0,0 +1,167 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.Task;
+import com.example.todo.repository.TaskRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// The JCache caches behind Hibernate's second-level cache are shared by every application context of the JVM, tasks
+// loaded here would be served to other test classes
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "todo.write-behind.enabled=true",
+        "todo.write-behind.log-path=target/task-write-behind-test.log",
+        "todo.write-behind.dead-letter-path=target/task-write-behind-dead-letter-test.log",
+        "todo.limits.rate.enabled=false"
+})
+@AutoConfigureMockMvc
+class TaskWriteBehindTests {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Path LOG_PATH = Path.of("target/task-write-behind-test.log");
+    private static final Path DEAD_LETTER_PATH = Path.of("target/task-write-behind-dead-letter-test.log");
+    private static final String LONG_TITLE = "x".repeat(256);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskWriteBehind writeBehind;
+
+    @Autowired
+    private TaskRepository repository;
+
+    @Autowired
+    private TaskCounters taskCounters;
+
+    private void awaitDrained() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writeBehind.pending() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void testPostAcceptedAndWrittenBehind() throws Exception {
+        long totalBefore = taskCounters.stats().total();
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Queued task\", \"priority\": 2}"))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andReturn();
+        JsonNode task = MAPPER.readTree(result.getResponse().getContentAsString());
+        long id = task.get("id").asLong();
+        assert task.get("version").asLong() == 0;
+
+        awaitDrained();
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/" + id))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.title").value("Queued task"));
+        assert taskCounters.stats().total() == totalBefore + 1;
+        mockMvc.perform(MockMvcRequestBuilders.get("/tasks/search").param("q", "queued"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(id));
+    }
+
+    @Test
+    void testConcurrentSubmitsShareForces() throws Exception {
+        List<Long> ids;
+        try (ExecutorService clients = Executors.newFixedThreadPool(16)) {
+            List<Future<Long>> submitted = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Task task = new Task();
+                task.setTitle("Concurrent task " + i);
+                task.setPriority(3);
+                submitted.add(clients.submit(() -> writeBehind.submit(task).getId()));
+            }
+            ids = new ArrayList<>();
+            for (Future<Long> id : submitted) {
+                ids.add(id.get());
+            }
+        }
+
+        awaitDrained();
+        Assertions.assertThat(repository.findAllById(ids)).hasSize(200);
+    }
+
+    @Test
+    void testPostWithTooLongTitleRejected() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"" + LONG_TITLE + "\", \"priority\": 2}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0]")
+                        .value("Title must be at most 255 characters long"));
+    }
+
+    @Test
+    void testRejectedTaskMovedToDeadLetterFile() throws Exception {
+        Task rejected = new Task();
+        rejected.setTitle(LONG_TITLE);
+        rejected.setPriority(1);
+        Task accepted = new Task();
+        accepted.setTitle("Queued after a rejected task");
+        accepted.setPriority(1);
+        long rejectedId = writeBehind.submit(rejected).getId();
+        long acceptedId = writeBehind.submit(accepted).getId();
+
+        awaitDrained();
+        assert writeBehind.pending() == 0;
+        assert repository.findById(acceptedId).isPresent();
+        assert repository.findById(rejectedId).isEmpty();
+        Assertions.assertThat(Files.readAllLines(DEAD_LETTER_PATH))
+                .anySatisfy(line -> Assertions.assertThat(MAPPER.readTree(line).get("id").asLong())
+                        .isEqualTo(rejectedId));
+    }
+
+    @Test
+    void testRecoverInsertsLoggedTasksOnce() throws Exception {
+        long id = 900_000_001L;
+        String line = "{\"id\": " + id + ", \"title\": \"Logged before a crash\", \"priority\": 4}\n"
+                + "{\"id\": 900000002, \"title\": \"Incompl";
+        Files.writeString(LOG_PATH, line, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        writeBehind.recover();
+        Task recovered = repository.findById(id).orElseThrow();
+        assert recovered.getTitle().equals("Logged before a crash");
+        assert repository.findById(900_000_002L).isEmpty();
+        assert Files.size(LOG_PATH) == 0;
+
+        // Replaying an entry that was already inserted skips it
+        Files.writeString(LOG_PATH, line, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        writeBehind.recover();
+        assert repository.findById(id).isPresent();
+    }
+
+    @Test
+    void testRecoverMovesRejectedTasksToDeadLetterFile() throws Exception {
+        String lines = "{\"id\": 900000011, \"title\": \"" + LONG_TITLE + "\", \"priority\": 4}\n"
+                + "{\"id\": 900000012, \"title\": \"Logged after a rejected task\", \"priority\": 4}\n";
+        Files.writeString(LOG_PATH, lines, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        writeBehind.recover();
+        assert repository.findById(900_000_012L).isPresent();
+        assert repository.findById(900_000_011L).isEmpty();
+        assert Files.size(LOG_PATH) == 0;
+        Assertions.assertThat(Files.readString(DEAD_LETTER_PATH)).contains("900000011");
+    }
+}